@@ -0,0 +1,114 @@
+import utils.WorkingCalendar;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * An index of the load timelines of the employees of a planning system,
+ * to find the employees that have free hours available during a period
+ * The timeline of an employee is dropped on every new commitment of the employee
+ * and rebuilt when it is needed by the next query
+ */
+class AvailabilityIndex implements ProjectListener {
+    private final IdRegistry ids;
+    private final WorkingCalendar calendar;
+    private LoadTimeline[] timelines = new LoadTimeline[16];    // by employee id, null if not built
+
+    AvailabilityIndex(IdRegistry ids, WorkingCalendar calendar) {
+        this.ids = ids;
+        this.calendar = calendar;
+    }
+
+    @Override
+    public void commitmentAdded(Project project, Employee employee, int hoursPerDay, boolean newAssignment) {
+        int id = this.ids.findId(employee);
+        if (id >= 0 && id < this.timelines.length) {
+            this.timelines[id] = null;
+        }
+    }
+
+    /**
+     * @param employee
+     * @return the timeline of the employee, which is only cached for the employees of the planning system
+     */
+    LoadTimeline getTimeline(Employee employee) {
+        int id = this.ids.findId(employee);
+        if (id < 0) return LoadTimeline.of(employee);
+        if (id >= this.timelines.length) {
+            this.timelines = Arrays.copyOf(this.timelines, Math.max(2 * this.timelines.length, id + 1));
+        }
+        if (this.timelines[id] == null) {
+            this.timelines[id] = LoadTimeline.of(employee);
+        }
+        return this.timelines[id];
+    }
+
+    /**
+     * finds the employees that have at least the specified free hours on every working day
+     * between firstDay and lastDay, both inclusive
+     *
+     * @param employees             the candidates
+     * @param minFreeHoursPerDay
+     * @param firstDay
+     * @param lastDay
+     * @return the available employees, cheapest first and by number on equal hourly wages
+     */
+    List<Employee> findAvailable(Collection<Employee> employees, int minFreeHoursPerDay,
+                                 LocalDate firstDay, LocalDate lastDay) {
+        // only the load on working days matters
+        LocalDate firstWorkingDay = this.calendar.firstWorkingDayFrom(firstDay);
+        LocalDate lastWorkingDay = this.calendar.lastWorkingDayUntil(lastDay);
+        int maxLoad = this.calendar.getWorkingHoursPerDay() - minFreeHoursPerDay;
+
+        List<Employee> available = new ArrayList<>();
+        for (Employee employee : employees) {
+            if (maxLoad >= 0 && getTimeline(employee).getMaxLoad(firstWorkingDay, lastWorkingDay) <= maxLoad) {
+                available.add(employee);
+            }
+        }
+        available.sort(Comparator.comparing(Employee::getHourlyWage).thenComparing(Comparator.naturalOrder()));
+        return available;
+    }
+
+    /**
+     * finds the earliest start of a period of working days during which all commitments fit
+     * within the working hours per day, next to the existing commitments of the employees
+     * instead of trying every start day, the search jumps past the first overloaded segment
+     * of any of the employees, so every segment of the timelines is visited at most once
+     *
+     * @param numWorkingDays    the duration of the period
+     * @param commitments       the hours per day that are required of each employee
+     * @param notBefore
+     * @return the earliest feasible start, a working day, or null if some commitment alone exceeds the working hours per day
+     */
+    LocalDate findEarliestStart(int numWorkingDays, Map<Employee, Integer> commitments, LocalDate notBefore) {
+        int workingHoursPerDay = this.calendar.getWorkingHoursPerDay();
+        List<LoadTimeline> timelines = new ArrayList<>();
+        List<Integer> maxLoads = new ArrayList<>();
+        for (Map.Entry<Employee, Integer> commitment : commitments.entrySet()) {
+            if (commitment.getValue() > workingHoursPerDay) return null;
+            if (commitment.getValue() > 0) {
+                timelines.add(getTimeline(commitment.getKey()));
+                maxLoads.add(workingHoursPerDay - commitment.getValue());
+            }
+        }
+
+        long start = this.calendar.firstWorkingDayFrom(notBefore).toEpochDay();
+        while (true) {
+            long end = this.calendar.getLastWorkingDay(start, Math.max(1, numWorkingDays));
+            long next = start;
+            for (int i = 0; i < timelines.size(); i++) {
+                LoadTimeline timeline = timelines.get(i);
+                int segment = timeline.findFirstOverload(maxLoads.get(i), start, end, this.calendar);
+                if (segment >= 0) {
+                    // no period that starts before the end of the overloaded segment can avoid it
+                    next = Math.max(next, timeline.getSegmentEnd(segment) + 1);
+                }
+            }
+            if (next == start) {
+                return LocalDate.ofEpochDay(start);
+            }
+            start = this.calendar.firstWorkingDayFrom(LocalDate.ofEpochDay(next)).toEpochDay();
+        }
+    }
+}
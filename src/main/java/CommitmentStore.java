@@ -0,0 +1,285 @@
+import java.util.*;
+
+/**
+ * A columnar snapshot of all commitments of a planning system
+ * The commitments are kept in parallel primitive arrays of project ids, employee ids and hours per day,
+ * sorted by project and then by employee, with a permutation of the commitments sorted by employee
+ * Projects and employees get dense ids in the store: projects in order of code, employees in order of number
+ * The budgets, monthly spends and involvement counts are calculated by linear scans over the arrays,
+ * without boxing, entry objects or hashing
+ */
+public class CommitmentStore {
+    private final Project[] projects;           // by project id
+    private final int[] numWorkingDays;         // by project id
+    private final Employee[] employees;         // by employee id
+    private final int[] hourlyWages;            // by employee id
+
+    // the commitments, sorted by project and employee
+    private final int[] projectIds;
+    private final int[] employeeIds;
+    private final int[] hoursPerDay;
+    private final int[] projectStarts;          // the commitments of project p are at [projectStarts[p], projectStarts[p+1])
+
+    // the commitments sorted by employee and project, as indices into the arrays above
+    private final int[] byEmployee;
+    private final int[] employeeStarts;         // the commitments of employee e are at byEmployee[employeeStarts[e]..]
+
+    // the store ids by the ids of the planning system, -1 for objects that are not in the store
+    // objects without an id in the planning system are indexed by identity, such that a snapshot never registers them
+    private final IdRegistry ids;
+    private final int[] projectIndex;
+    private final int[] employeeIndex;
+    private final Map<Project, Integer> outsideProjects = new IdentityHashMap<>();
+    private final Map<Employee, Integer> outsideEmployees = new IdentityHashMap<>();
+
+    /**
+     * A view on the commitments of a single project or a single employee
+     */
+    public class CommitmentView {
+        private final int[] commitments;        // the commitments are commitments[from..to), or from..to if null
+        private final int from;
+        private final int to;
+
+        private CommitmentView(int[] commitments, int from, int to) {
+            this.commitments = commitments;
+            this.from = from;
+            this.to = to;
+        }
+
+        private int commitment(int i) {
+            return (this.commitments == null ? this.from + i : this.commitments[this.from + i]);
+        }
+
+        public int size() {
+            return this.to - this.from;
+        }
+
+        public Project getProject(int i) {
+            return projects[projectIds[commitment(i)]];
+        }
+
+        public Employee getEmployee(int i) {
+            return employees[employeeIds[commitment(i)]];
+        }
+
+        public int getHoursPerDay(int i) {
+            return hoursPerDay[commitment(i)];
+        }
+
+        /**
+         * @return the sum of the hours per day of all commitments of the view
+         */
+        public int getTotalHoursPerDay() {
+            int total = 0;
+            for (int i = 0; i < size(); i++) {
+                total += hoursPerDay[commitment(i)];
+            }
+            return total;
+        }
+    }
+
+    /**
+     * creates a snapshot of the commitments of the projects
+     * the employees are indexed along with any other employees that have commitments,
+     * which are kept in the store only and do not get an id in the planning system
+     *
+     * @param ids       the ids of the planning system
+     * @param employees
+     * @param projects
+     */
+    CommitmentStore(IdRegistry ids, Collection<Employee> employees, Collection<Project> projects) {
+        this.ids = ids;
+        this.projects = projects.toArray(new Project[0]);
+        Arrays.sort(this.projects);
+        this.numWorkingDays = new int[this.projects.length];
+
+        // collect the employees, including any employees outside the system that have commitments
+        Set<Employee> allEmployees = Collections.newSetFromMap(new IdentityHashMap<>());
+        allEmployees.addAll(employees);
+        int numCommitments = 0;
+        for (Project project : this.projects) {
+            allEmployees.addAll(project.getCommittedHoursPerDay().keySet());
+            numCommitments += project.getCommittedHoursPerDay().size();
+        }
+        // number the employees of the store in order of number
+        this.employees = allEmployees.toArray(new Employee[0]);
+        Arrays.sort(this.employees);
+        this.hourlyWages = new int[this.employees.length];
+        this.employeeIndex = new int[ids.getNumEmployees()];
+        Arrays.fill(this.employeeIndex, -1);
+        for (int e = 0; e < this.employees.length; e++) {
+            int id = ids.findId(this.employees[e]);
+            if (id >= 0) {
+                this.employeeIndex[id] = e;
+            } else {
+                this.outsideEmployees.put(this.employees[e], e);
+            }
+            this.hourlyWages[e] = this.employees[e].getHourlyWage();
+        }
+        this.projectIndex = new int[ids.getNumProjects()];
+        Arrays.fill(this.projectIndex, -1);
+
+        // fill the commitments project by project, in order of employee id
+        this.projectIds = new int[numCommitments];
+        this.employeeIds = new int[numCommitments];
+        this.hoursPerDay = new int[numCommitments];
+        this.projectStarts = new int[this.projects.length + 1];
+        int[] employeeCounts = new int[this.employees.length + 1];
+        int c = 0;
+        for (int p = 0; p < this.projects.length; p++) {
+            Project project = this.projects[p];
+            int id = ids.findId(project);
+            if (id >= 0) {
+                this.projectIndex[id] = p;
+            } else {
+                this.outsideProjects.put(project, p);
+            }
+            if (project.getStartDate() != null && project.getEndDate() != null) {
+                this.numWorkingDays[p] = project.getNumWorkingDays();
+            }
+            this.projectStarts[p] = c;
+            long[] sorted = new long[project.getCommittedHoursPerDay().size()];
+            int n = 0;
+            for (Map.Entry<Employee, Integer> commitment : project.getCommittedHoursPerDay().entrySet()) {
+                // pack the employee id above the hours, to sort by employee id
+                sorted[n++] = ((long) indexOf(commitment.getKey()) << 32) |
+                        (commitment.getValue() & 0xFFFFFFFFL);
+            }
+            Arrays.sort(sorted);
+            for (long commitment : sorted) {
+                this.projectIds[c] = p;
+                this.employeeIds[c] = (int) (commitment >>> 32);
+                this.hoursPerDay[c] = (int) commitment;
+                employeeCounts[this.employeeIds[c] + 1]++;
+                c++;
+            }
+        }
+        this.projectStarts[this.projects.length] = c;
+
+        // a counting sort by employee keeps the commitments of each employee in order of project
+        this.employeeStarts = employeeCounts;
+        for (int e = 0; e < this.employees.length; e++) {
+            this.employeeStarts[e + 1] += this.employeeStarts[e];
+        }
+        this.byEmployee = new int[numCommitments];
+        int[] positions = Arrays.copyOf(this.employeeStarts, this.employees.length);
+        for (c = 0; c < numCommitments; c++) {
+            this.byEmployee[positions[this.employeeIds[c]]++] = c;
+        }
+    }
+
+    /**
+     * @param project
+     * @return the store id of the project, or -1 if the project is not in the store
+     */
+    private int indexOf(Project project) {
+        int id = this.ids.findId(project);
+        if (id >= 0 && id < this.projectIndex.length && this.projectIndex[id] >= 0) return this.projectIndex[id];
+        return this.outsideProjects.getOrDefault(project, -1);
+    }
+
+    /**
+     * @param employee
+     * @return the store id of the employee, or -1 if the employee is not in the store
+     */
+    private int indexOf(Employee employee) {
+        int id = this.ids.findId(employee);
+        if (id >= 0 && id < this.employeeIndex.length && this.employeeIndex[id] >= 0) return this.employeeIndex[id];
+        return this.outsideEmployees.getOrDefault(employee, -1);
+    }
+
+    public int getNumProjects() {
+        return this.projects.length;
+    }
+
+    public int getNumEmployees() {
+        return this.employees.length;
+    }
+
+    public int getNumCommitments() {
+        return this.hoursPerDay.length;
+    }
+
+    /**
+     * @param project
+     * @return the commitments on the project, in order of employee number; empty for unknown projects
+     */
+    public CommitmentView getCommitments(Project project) {
+        int p = indexOf(project);
+        return (p < 0 ? new CommitmentView(null, 0, 0) :
+                new CommitmentView(null, this.projectStarts[p], this.projectStarts[p + 1]));
+    }
+
+    /**
+     * @param employee
+     * @return the commitments of the employee, in order of project code; empty for unknown employees
+     */
+    public CommitmentView getCommitments(Employee employee) {
+        int e = indexOf(employee);
+        return (e < 0 ? new CommitmentView(null, 0, 0) :
+                new CommitmentView(this.byEmployee, this.employeeStarts[e], this.employeeStarts[e + 1]));
+    }
+
+    /**
+     * calculates the daily manpower cost of every project in a single scan over the commitments
+     *
+     * @return the daily costs by project id
+     */
+    private int[] calculateDailyCosts() {
+        int[] dailyCosts = new int[this.projects.length];
+        for (int c = 0; c < this.hoursPerDay.length; c++) {
+            dailyCosts[this.projectIds[c]] += this.hoursPerDay[c] * this.hourlyWages[this.employeeIds[c]];
+        }
+        return dailyCosts;
+    }
+
+    /**
+     * @return the manpower budget of every project, by project
+     */
+    public Map<Project, Integer> calculateManpowerBudgets() {
+        int[] dailyCosts = calculateDailyCosts();
+        Map<Project, Integer> budgets = new LinkedHashMap<>();
+        for (int p = 0; p < this.projects.length; p++) {
+            budgets.put(this.projects[p], dailyCosts[p] * this.numWorkingDays[p]);
+        }
+        return budgets;
+    }
+
+    /**
+     * @return the total manpower budget of all projects
+     */
+    public int calculateTotalManpowerBudget() {
+        int[] dailyCosts = calculateDailyCosts();
+        int total = 0;
+        for (int p = 0; p < this.projects.length; p++) {
+            total += dailyCosts[p] * this.numWorkingDays[p];
+        }
+        return total;
+    }
+
+    /**
+     * @return the spends per month of all projects with commitments
+     */
+    public MonthlySpendReport calculateMonthlySpendReport() {
+        int[] dailyCosts = calculateDailyCosts();
+        MonthlySpendReport report = new MonthlySpendReport(Collections.emptyList());
+        for (int p = 0; p < this.projects.length; p++) {
+            if (this.projectStarts[p + 1] > this.projectStarts[p]) {
+                report.add(this.projects[p], dailyCosts[p]);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * @return the number of projects that every employee has commitments on, by employee in order of number
+     */
+    public Map<Employee, Integer> calculateInvolvementCounts() {
+        Map<Employee, Integer> counts = new LinkedHashMap<>();
+        for (int e = 0; e < this.employees.length; e++) {
+            // every employee has at most one commitment per project
+            counts.put(this.employees[e], this.employeeStarts[e + 1] - this.employeeStarts[e]);
+        }
+        return counts;
+    }
+}
@@ -19,14 +19,16 @@ public class Employee implements Comparable<Employee> {
     private Set<Project> managedProjects;   // the projects that are managed by this employee
     private Set<Project> assignedProjects;  // the projects that this employee is working on
                                             // (the project manager is also assigned to his/her project)
+                                            // both are compact sorted sets, most employees have few projects
+    private int id = -1;                    // the dense id within the planning system that the employee has joined
 
     public Employee(int number) {
         this.number = number;
         this.name = Names.nextFullNameWithMI(number);
         lastNumber = Math.max(number, lastNumber);
         this.hourlyWage = 16 + randomizer.nextInt(MAX_WAGE -15);
-        this.managedProjects = new HashSet<>();
-        this.assignedProjects = new HashSet<>();
+        this.managedProjects = new ProjectSet();
+        this.assignedProjects = new ProjectSet();
     }
 
     public Employee(int number, int hourlyWage) {
@@ -43,6 +45,25 @@ public class Employee implements Comparable<Employee> {
         this(lastNumber + 1 + randomizer.nextInt(8));
     }
 
+    private Employee(Employee original, int hourlyWage) {
+        this.number = original.number;
+        this.name = original.name;
+        this.hourlyWage = hourlyWage;
+        this.managedProjects = original.managedProjects;
+        this.assignedProjects = original.assignedProjects;
+    }
+
+    /**
+     * creates a copy of the employee with another hourly wage, for a scenario of a planning system
+     * the copy equals the original and shares its sets of projects, which must not be changed via the copy
+     *
+     * @param hourlyWage
+     * @return
+     */
+    Employee withHourlyWage(int hourlyWage) {
+        return new Employee(this, hourlyWage);
+    }
+
     @Override
     public int compareTo(Employee o) {
         return this.number - o.number;
@@ -59,9 +80,10 @@ public class Employee implements Comparable<Employee> {
                 name.equals(employee.name);
     }
 
+    // the same hash as Objects.hash(name, number), without boxing and a varargs array
     @Override
     public int hashCode() {
-        return Objects.hash(name, number);
+        return 31 * (31 + Objects.hashCode(name)) + number;
     }
 
     // make sure Employees can be printed. The format is 'name(number)'
@@ -82,6 +104,14 @@ public class Employee implements Comparable<Employee> {
                 .sum(); // Sum up the manpower budget of all project managed by this employee
     }
 
+    int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
     public int getNumber() {
         return number;
     }
@@ -102,16 +132,27 @@ public class Employee implements Comparable<Employee> {
         return assignedProjects;
     }
 
+    /**
+     * provides the commitments of the employee in the columnar store of a planning system
+     * an employee may join several planning systems, so the store is specified by the caller
+     *
+     * @param store     the store of a planning system, see PPS.getCommitmentStore
+     * @return the commitments in order of project code; empty if the employee is not in the store
+     */
+    public CommitmentStore.CommitmentView getCommitments(CommitmentStore store) {
+        return store.getCommitments(this);
+    }
+
     // Below are helper attributes and methods for sample generation
     // and XML import and export
 
     public static Set<Employee> importEmployeesFromXML(XMLParser xmlParser, Set<Employee> employees,
-                    Set<Project> projects) throws XMLStreamException {
+                    Map<String, Project> projectsByCode) throws XMLStreamException {
         if (xmlParser.nextBeginTag("employees")) {
             xmlParser.nextTag();
             if (employees != null) {
                 Employee employee;
-                while ((employee = importFromXML(xmlParser, projects)) != null) {
+                while ((employee = importFromXML(xmlParser, projectsByCode)) != null) {
                     employees.add(employee);
                 }
             }
@@ -120,7 +161,7 @@ public class Employee implements Comparable<Employee> {
         return employees;
     }
 
-    public static Employee importFromXML(XMLParser xmlParser, Set<Project> projects) throws XMLStreamException {
+    public static Employee importFromXML(XMLParser xmlParser, Map<String, Project> projectsByCode) throws XMLStreamException {
         if (xmlParser.nextBeginTag("employee")) {
             int number = xmlParser.getIntegerAttributeValue(null, "number", 0);
             xmlParser.nextTag();
@@ -142,22 +183,16 @@ public class Employee implements Comparable<Employee> {
             if (xmlParser.nextBeginTag("managedProjects")) {
                 xmlParser.nextTag();
                 Project project;
-                while ((project = Project.importReferenceFromXML(xmlParser, projects)) != null) {
+                while ((project = Project.importReferenceFromXML(xmlParser, projectsByCode)) != null) {
                     employee.managedProjects.add(project);
-
-                    // replace the placeholder references in the project, if any
-                    project.updateReferences(employee);
                 }
                 xmlParser.findAndAcceptEndTag("managedProjects");
             }
             if (xmlParser.nextBeginTag("allocatedProjects")) {
                 xmlParser.nextTag();
                 Project project;
-                while ((project = Project.importReferenceFromXML(xmlParser, projects)) != null) {
+                while ((project = Project.importReferenceFromXML(xmlParser, projectsByCode)) != null) {
                     employee.assignedProjects.add(project);
-
-                    // replace the placeholder references in the project, if any
-                    project.updateReferences(employee);
                 }
                 xmlParser.findAndAcceptEndTag("allocatedProjects");
             }
@@ -167,14 +202,4 @@ public class Employee implements Comparable<Employee> {
         }
         return null;
     }
-
-    public void updateReferences(Project project) {
-        // replace the employee's references to project
-        if (this.managedProjects.removeIf(p -> p.equals(project))) {
-            this.managedProjects.add(project);
-        }
-        if (this.assignedProjects.removeIf(p -> p.equals(project))) {
-            this.assignedProjects.add(project);
-        }
-    }
 }
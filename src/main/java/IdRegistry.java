@@ -0,0 +1,97 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense int ids to the employees and projects of a planning system, in order of joining the system
+ * The internal indices and aggregates of the system are arrays or primitive maps keyed on these ids,
+ * such that the hot paths do not hash employees or projects
+ * The id is kept in the object itself by the first system that the object joins, and is found in O(1);
+ * every later system keeps the id of the object by its identity instead, and leaves the id field untouched
+ */
+class IdRegistry {
+    private final List<Employee> employees = new ArrayList<>();     // by id
+    private final List<Project> projects = new ArrayList<>();       // by id
+    private Map<Object, Integer> sharedIds = null;                  // the ids of objects that carry the id of another system
+
+    /**
+     * @param employee
+     * @return the id of the employee, which is assigned if the employee has not joined the system before
+     */
+    int idOf(Employee employee) {
+        int id = findId(employee);
+        if (id < 0) {
+            id = this.employees.size();
+            this.employees.add(employee);
+            if (register(employee, employee.getId(), id)) employee.setId(id);
+        }
+        return id;
+    }
+
+    /**
+     * @param project
+     * @return the id of the project, which is assigned if the project has not joined the system before
+     */
+    int idOf(Project project) {
+        int id = findId(project);
+        if (id < 0) {
+            id = this.projects.size();
+            this.projects.add(project);
+            if (register(project, project.getId(), id)) project.setId(id);
+        }
+        return id;
+    }
+
+    /**
+     * @param employee
+     * @return the id of the employee, or -1 if the employee has not joined the system
+     */
+    int findId(Employee employee) {
+        int id = employee.getId();
+        if (id >= 0 && id < this.employees.size() && this.employees.get(id) == employee) return id;
+        return findSharedId(employee);
+    }
+
+    /**
+     * @param project
+     * @return the id of the project, or -1 if the project has not joined the system
+     */
+    int findId(Project project) {
+        int id = project.getId();
+        if (id >= 0 && id < this.projects.size() && this.projects.get(id) == project) return id;
+        return findSharedId(project);
+    }
+
+    private int findSharedId(Object object) {
+        return (this.sharedIds == null ? -1 : this.sharedIds.getOrDefault(object, -1));
+    }
+
+    /**
+     * remembers the new id by identity if the object already carries the id of another system
+     *
+     * @return whether the id field of the object is free to hold the new id
+     */
+    private boolean register(Object object, int previousId, int id) {
+        if (previousId < 0) return true;
+        if (this.sharedIds == null) this.sharedIds = new IdentityHashMap<>();
+        this.sharedIds.put(object, id);
+        return false;
+    }
+
+    Employee getEmployee(int id) {
+        return this.employees.get(id);
+    }
+
+    Project getProject(int id) {
+        return this.projects.get(id);
+    }
+
+    int getNumEmployees() {
+        return this.employees.size();
+    }
+
+    int getNumProjects() {
+        return this.projects.size();
+    }
+}
@@ -0,0 +1,88 @@
+import utils.IntIntMap;
+
+import java.util.*;
+
+/**
+ * Links the commitments of imported projects to the imported employees in a single pass
+ * While the projects are being imported, the commitments are recorded as primitive
+ * (project index, employee number, hours per day) tuples, because the employees are only imported afterwards
+ * Once the employees are available, every tuple is resolved by the number of the employee
+ * Only numbers that are not found among the employees get a placeholder employee
+ */
+public class ImportLinker {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<Project> projects = new ArrayList<>();
+    private int[] projectIndices = new int[INITIAL_CAPACITY];
+    private int[] employeeNrs = new int[INITIAL_CAPACITY];
+    private int[] hoursPerDay = new int[INITIAL_CAPACITY];
+    private int numCommitments = 0;
+
+    /**
+     * registers a project of which the commitments will be recorded
+     *
+     * @param project
+     * @return the index of the project to record its commitments with
+     */
+    public int addProject(Project project) {
+        this.projects.add(project);
+        return this.projects.size() - 1;
+    }
+
+    /**
+     * records a commitment of the employee with the number on the project with the index
+     *
+     * @param projectIndex
+     * @param employeeNr
+     * @param hoursPerDay
+     */
+    public void addCommitment(int projectIndex, int employeeNr, int hoursPerDay) {
+        if (this.numCommitments == this.projectIndices.length) {
+            int capacity = 2 * this.numCommitments;
+            this.projectIndices = Arrays.copyOf(this.projectIndices, capacity);
+            this.employeeNrs = Arrays.copyOf(this.employeeNrs, capacity);
+            this.hoursPerDay = Arrays.copyOf(this.hoursPerDay, capacity);
+        }
+        this.projectIndices[this.numCommitments] = projectIndex;
+        this.employeeNrs[this.numCommitments] = employeeNr;
+        this.hoursPerDay[this.numCommitments] = hoursPerDay;
+        this.numCommitments++;
+    }
+
+    public int getNumCommitments() {
+        return this.numCommitments;
+    }
+
+    /**
+     * registers all recorded commitments with their projects
+     * a later commitment of the same employee on the same project replaces an earlier one, as in the XML import
+     *
+     * @param employees     the imported employees
+     */
+    public void link(Collection<Employee> employees) {
+        // index the employees by number, keeping the first employee of every number
+        Employee[] employeesBySlot = new Employee[employees.size()];
+        IntIntMap employeeSlots = new IntIntMap(employees.size());
+        int numSlots = 0;
+        for (Employee employee : employees) {
+            if (!employeeSlots.containsKey(employee.getNumber())) {
+                employeeSlots.put(employee.getNumber(), numSlots);
+                employeesBySlot[numSlots++] = employee;
+            }
+        }
+
+        Map<Integer, Employee> placeholders = null;
+        for (int i = 0; i < this.numCommitments; i++) {
+            int slot = employeeSlots.getOrDefault(this.employeeNrs[i], -1);
+            Employee employee;
+            if (slot >= 0) {
+                employee = employeesBySlot[slot];
+            } else {
+                // an incomplete employee object for a number that is not among the employees
+                if (placeholders == null) placeholders = new HashMap<>();
+                employee = placeholders.computeIfAbsent(this.employeeNrs[i], Employee::new);
+            }
+            this.projects.get(this.projectIndices[i]).putCommitment(employee, this.hoursPerDay[i]);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.*;
+
+/**
+ * An index of the number of assigned projects per employee
+ * The counts are kept in primitive arrays indexed by the id of the employee,
+ * with all employees of the same count linked into a bucket,
+ * such that a count can be incremented in O(1) and the most involved employees are found
+ * by visiting the buckets from the highest count downwards, without scanning or sorting all employees
+ */
+class InvolvementIndex {
+    private static final int NONE = -1;
+
+    private Employee[] employees = new Employee[16];            // the employee of every slot, null if not indexed
+    private int[] counts = new int[16];                         // the assignment count of every slot
+    private int[] next = new int[16];                           // the next slot in the bucket of the same count
+    private int[] previous = new int[16];                       // the previous slot in the bucket of the same count
+    private int[] heads = new int[16];                          // the first slot of the bucket of every count
+    private int[] bucketSizes = new int[16];                    // the number of slots in the bucket of every count
+    private int size = 0;
+    private int maxCount = 0;
+
+    InvolvementIndex() {
+        Arrays.fill(this.heads, NONE);
+    }
+
+    /**
+     * adds an employee to the index, or updates its count if it had been indexed before
+     *
+     * @param slot      the id of the employee
+     * @param employee
+     * @param count     the number of projects that the employee is assigned to
+     */
+    void put(int slot, Employee employee, int count) {
+        if (slot >= this.employees.length) {
+            int capacity = Math.max(2 * this.employees.length, slot + 1);
+            this.employees = Arrays.copyOf(this.employees, capacity);
+            this.counts = Arrays.copyOf(this.counts, capacity);
+            this.next = Arrays.copyOf(this.next, capacity);
+            this.previous = Arrays.copyOf(this.previous, capacity);
+        }
+        if (this.employees[slot] == null) {
+            this.employees[slot] = employee;
+            this.size++;
+        } else {
+            unlink(slot);
+        }
+        link(slot, count);
+    }
+
+    private boolean isIndexed(int slot) {
+        return (slot >= 0 && slot < this.employees.length && this.employees[slot] != null);
+    }
+
+    /**
+     * registers one more assigned project of an indexed employee
+     *
+     * @param slot      the id of the employee
+     */
+    void increment(int slot) {
+        if (isIndexed(slot)) {
+            unlink(slot);
+            link(slot, this.counts[slot] + 1);
+        }
+    }
+
+    /**
+     * @param slot      the id of the employee
+     * @return the count of the employee, 0 if the employee is not indexed
+     */
+    int getCount(int slot) {
+        return (isIndexed(slot) ? this.counts[slot] : 0);
+    }
+
+    int getMaxCount() {
+        return this.maxCount;
+    }
+
+    private void link(int slot, int count) {
+        if (count >= this.heads.length) {
+            int oldLength = this.heads.length;
+            this.heads = Arrays.copyOf(this.heads, Math.max(2 * oldLength, count + 1));
+            Arrays.fill(this.heads, oldLength, this.heads.length, NONE);
+            this.bucketSizes = Arrays.copyOf(this.bucketSizes, this.heads.length);
+        }
+        this.counts[slot] = count;
+        this.previous[slot] = NONE;
+        this.next[slot] = this.heads[count];
+        if (this.heads[count] != NONE) {
+            this.previous[this.heads[count]] = slot;
+        }
+        this.heads[count] = slot;
+        this.bucketSizes[count]++;
+        this.maxCount = Math.max(this.maxCount, count);
+    }
+
+    private void unlink(int slot) {
+        int count = this.counts[slot];
+        if (this.previous[slot] != NONE) {
+            this.next[this.previous[slot]] = this.next[slot];
+        } else {
+            this.heads[count] = this.next[slot];
+        }
+        if (this.next[slot] != NONE) {
+            this.previous[this.next[slot]] = this.previous[slot];
+        }
+        this.bucketSizes[count]--;
+        // counts only increase, so the maximum can only drop when its last employee moves up
+        while (this.maxCount > 0 && this.heads[this.maxCount] == NONE) {
+            this.maxCount--;
+        }
+    }
+
+    /**
+     * finds all employees that are assigned to at least the specified number of projects
+     *
+     * @param minCount
+     * @return  the employees, sorted by name
+     */
+    Set<Employee> findWithMinCount(int minCount) {
+        Set<Employee> found = new TreeSet<>(Comparator.comparing(Employee::getName));
+        for (int count = this.maxCount; count >= Math.max(minCount, 0); count--) {
+            for (int slot = this.heads[count]; slot != NONE; slot = this.next[slot]) {
+                found.add(this.employees[slot]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * finds the k employees that are assigned to the highest numbers of projects
+     * among employees with equal counts, those with the lowest numbers are selected
+     * the buckets that fit entirely are taken as a whole and only sorted by number;
+     * the buckets are not ordered by number, so the last bucket, which does not fit entirely,
+     * is scanned with a bounded max-heap, which takes O(k log k + B log k) for a last bucket of B employees
+     *
+     * @param k
+     * @return  at most k employees, by descending count and ascending number; empty if k is not positive
+     */
+    List<Employee> findTop(int k) {
+        if (k <= 0) return new ArrayList<>();
+        List<Employee> top = new ArrayList<>(Math.min(k, this.size));
+        for (int count = this.maxCount; count >= 0 && top.size() < k; count--) {
+            int needed = k - top.size();
+            Employee[] bucket;
+            if (this.bucketSizes[count] <= needed) {
+                // the whole bucket is taken
+                bucket = new Employee[this.bucketSizes[count]];
+                int n = 0;
+                for (int slot = this.heads[count]; slot != NONE; slot = this.next[slot]) {
+                    bucket[n++] = this.employees[slot];
+                }
+            } else {
+                // select the lowest numbers of the last bucket with a bounded max-heap
+                PriorityQueue<Employee> selection = new PriorityQueue<>(needed + 1, Comparator.reverseOrder());
+                for (int slot = this.heads[count]; slot != NONE; slot = this.next[slot]) {
+                    selection.add(this.employees[slot]);
+                    if (selection.size() > needed) {
+                        selection.poll();
+                    }
+                }
+                bucket = selection.toArray(new Employee[0]);
+            }
+            Arrays.sort(bucket);
+            top.addAll(Arrays.asList(bucket));
+        }
+        return top;
+    }
+}
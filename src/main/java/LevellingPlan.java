@@ -0,0 +1,67 @@
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A proposed re-plan of a portfolio, which moves some projects to other dates
+ * to lower the peak of the daily manpower spend
+ * The moved projects keep their number of working days and their commitments
+ */
+public class LevellingPlan {
+    private final Map<Project, LocalDate> startDates;   // the proposed start dates of the moved projects
+    private final Map<Project, LocalDate> endDates;     // the proposed end dates of the moved projects
+    private final long peakDailySpendBefore;
+    private final long peakDailySpendAfter;
+
+    public LevellingPlan(Map<Project, LocalDate> startDates, Map<Project, LocalDate> endDates,
+                         long peakDailySpendBefore, long peakDailySpendAfter) {
+        this.startDates = startDates;
+        this.endDates = endDates;
+        this.peakDailySpendBefore = peakDailySpendBefore;
+        this.peakDailySpendAfter = peakDailySpendAfter;
+    }
+
+    /**
+     * @return the highest total daily manpower cost of any working day with the current dates
+     */
+    public long getPeakDailySpendBefore() {
+        return peakDailySpendBefore;
+    }
+
+    /**
+     * @return the highest total daily manpower cost of any working day with the proposed dates
+     */
+    public long getPeakDailySpendAfter() {
+        return peakDailySpendAfter;
+    }
+
+    /**
+     * @return the projects that get other dates in the plan
+     */
+    public Set<Project> getMovedProjects() {
+        return Collections.unmodifiableSet(startDates.keySet());
+    }
+
+    /**
+     * @param project
+     * @return the proposed start date, which is the current start date for projects that are not moved
+     */
+    public LocalDate getStartDate(Project project) {
+        return startDates.getOrDefault(project, project.getStartDate());
+    }
+
+    /**
+     * @param project
+     * @return the proposed end date, which is the current end date for projects that are not moved
+     */
+    public LocalDate getEndDate(Project project) {
+        return endDates.getOrDefault(project, project.getEndDate());
+    }
+
+    @Override
+    public String toString() {
+        return "LevellingPlan{peak " + peakDailySpendBefore + " -> " + peakDailySpendAfter +
+                ", " + startDates.size() + " projects moved}";
+    }
+}
@@ -0,0 +1,217 @@
+import utils.WorkingCalendar;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The committed hours per day of a single employee over time, across all projects of the employee
+ * The timeline is compressed into segments of consecutive days with the same load,
+ * which are found by a sweep over the sorted start and end dates of the commitments
+ * Segment i covers the days from segmentStarts[i] until segmentStarts[i+1] - 1;
+ * before the first segment and from the last segment onwards the load is 0
+ * A tree of the maximum load of every range of segments answers the peak load of any period in O(log D)
+ */
+public class LoadTimeline {
+    // the hours of a commitment event are packed into the low bits, with an offset to keep them positive
+    private static final int HOURS_BITS = 20;
+    private static final int HOURS_OFFSET = 1 << (HOURS_BITS - 1);
+
+    private final Employee employee;
+    private final long[] segmentStarts;     // the epoch day on which each segment starts
+    private final int[] loads;              // the committed hours per day during each segment
+    private final int leaves;               // the number of leaves of the tree, a power of two
+    private final int[] maxLoads;           // maxLoads[node] = the maximum load of the segments of a tree node
+
+    private LoadTimeline(Employee employee, long[] segmentStarts, int[] loads) {
+        this.employee = employee;
+        this.segmentStarts = segmentStarts;
+        this.loads = loads;
+
+        int leaves = 1;
+        while (leaves < loads.length) {
+            leaves <<= 1;
+        }
+        this.leaves = leaves;
+        this.maxLoads = new int[2 * leaves];
+        System.arraycopy(loads, 0, this.maxLoads, leaves, loads.length);
+        for (int node = leaves - 1; node > 0; node--) {
+            this.maxLoads[node] = Math.max(this.maxLoads[2 * node], this.maxLoads[2 * node + 1]);
+        }
+    }
+
+    /**
+     * builds the timeline of the commitments of the employee on its assigned projects
+     *
+     * @param employee
+     * @return
+     */
+    public static LoadTimeline of(Employee employee) {
+        // every commitment adds its hours on the start date and removes them the day after the end date
+        long[] events = new long[2 * employee.getAssignedProjects().size()];
+        int numEvents = 0;
+        for (Project project : employee.getAssignedProjects()) {
+            Integer hoursPerDay = project.getCommittedHoursPerDay().get(employee);
+            if (hoursPerDay == null || hoursPerDay == 0 ||
+                    project.getStartDate() == null || project.getStartDate().isAfter(project.getEndDate())) {
+                continue;
+            }
+            events[numEvents++] = (project.getStartDate().toEpochDay() << HOURS_BITS) | (HOURS_OFFSET + hoursPerDay);
+            events[numEvents++] = ((project.getEndDate().toEpochDay() + 1) << HOURS_BITS) | (HOURS_OFFSET - hoursPerDay);
+        }
+        Arrays.sort(events, 0, numEvents);
+
+        // sweep the events, starting a new segment whenever the load changes
+        long[] segmentStarts = new long[numEvents];
+        int[] loads = new int[numEvents];
+        int numSegments = 0;
+        int load = 0;
+        for (int i = 0; i < numEvents; ) {
+            long day = events[i] >> HOURS_BITS;
+            for (; i < numEvents && (events[i] >> HOURS_BITS) == day; i++) {
+                load += (int)(events[i] & ((1 << HOURS_BITS) - 1)) - HOURS_OFFSET;
+            }
+            if (numSegments == 0 || loads[numSegments - 1] != load) {
+                segmentStarts[numSegments] = day;
+                loads[numSegments] = load;
+                numSegments++;
+            }
+        }
+        return new LoadTimeline(employee,
+                Arrays.copyOf(segmentStarts, numSegments), Arrays.copyOf(loads, numSegments));
+    }
+
+    public Employee getEmployee() {
+        return this.employee;
+    }
+
+    /**
+     * @return the number of segments of the timeline
+     */
+    public int size() {
+        return this.loads.length;
+    }
+
+    public LocalDate getSegmentStart(int segment) {
+        return LocalDate.ofEpochDay(this.segmentStarts[segment]);
+    }
+
+    public int getSegmentLoad(int segment) {
+        return this.loads[segment];
+    }
+
+    /**
+     * @param epochDay
+     * @return the index of the segment that contains the day, or -1 if the day is before the first segment
+     */
+    int segmentOf(long epochDay) {
+        int low = 0, high = this.segmentStarts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.segmentStarts[middle] <= epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * @param date
+     * @return the total hours that the employee has committed on the date
+     */
+    public int getLoad(LocalDate date) {
+        int segment = segmentOf(date.toEpochDay());
+        return (segment < 0 ? 0 : this.loads[segment]);
+    }
+
+    /**
+     * calculates the highest total of committed hours on any day between firstDay and lastDay, both inclusive
+     *
+     * @param firstDay
+     * @param lastDay
+     * @return 0 if nothing has been committed in the period
+     */
+    public int getMaxLoad(LocalDate firstDay, LocalDate lastDay) {
+        if (firstDay.isAfter(lastDay)) return 0;
+        int from = Math.max(0, segmentOf(firstDay.toEpochDay()));
+        int to = segmentOf(lastDay.toEpochDay());
+        int maxLoad = 0;
+        // combine the tree nodes that cover the segments [from, to] bottom-up
+        for (int low = from + this.leaves, high = to + this.leaves + 1; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) maxLoad = Math.max(maxLoad, this.maxLoads[low++]);
+            if ((high & 1) == 1) maxLoad = Math.max(maxLoad, this.maxLoads[--high]);
+        }
+        return maxLoad;
+    }
+
+    /**
+     * finds the first segment that exceeds maxLoad on a working day between firstDay and lastDay, both inclusive
+     *
+     * @param maxLoad       the highest load that is allowed, not negative
+     * @param firstDay      an epoch day
+     * @param lastDay       an epoch day
+     * @param calendar
+     * @return the index of the segment, or -1 if the load stays within maxLoad
+     */
+    int findFirstOverload(int maxLoad, long firstDay, long lastDay, WorkingCalendar calendar) {
+        int to = segmentOf(lastDay);
+        int segment = firstAbove(1, 0, this.leaves - 1, Math.max(0, segmentOf(firstDay)), to, maxLoad);
+        while (segment >= 0) {
+            // the segment only counts if the period has a working day within it
+            long first = Math.max(this.segmentStarts[segment], firstDay);
+            long last = Math.min(getSegmentEnd(segment), lastDay);
+            if (calendar.firstWorkingDayFrom(LocalDate.ofEpochDay(first)).toEpochDay() <= last) {
+                return segment;
+            }
+            segment = firstAbove(1, 0, this.leaves - 1, segment + 1, to, maxLoad);
+        }
+        return -1;
+    }
+
+    /**
+     * descends the tree to the leftmost segment within [from, to] with a load above maxLoad
+     */
+    private int firstAbove(int node, int nodeFrom, int nodeTo, int from, int to, int maxLoad) {
+        if (nodeTo < from || nodeFrom > to || this.maxLoads[node] <= maxLoad) return -1;
+        if (node >= this.leaves) return node - this.leaves;
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        int segment = firstAbove(2 * node, nodeFrom, middle, from, to, maxLoad);
+        return (segment >= 0 ? segment : firstAbove(2 * node + 1, middle + 1, nodeTo, from, to, maxLoad));
+    }
+
+    /**
+     * @param segment
+     * @return the epoch day on which the segment ends, Long.MAX_VALUE for the last segment
+     */
+    long getSegmentEnd(int segment) {
+        return (segment + 1 < this.segmentStarts.length ? this.segmentStarts[segment + 1] - 1 : Long.MAX_VALUE);
+    }
+
+    /**
+     * finds all periods in which the committed hours exceed the working hours per day of the calendar
+     * consecutive days with the same load are reported as a single period,
+     * trimmed to the working days in that period
+     *
+     * @param calendar
+     * @return the overtime periods in chronological order
+     */
+    public List<OvertimeInterval> findOvertime(WorkingCalendar calendar) {
+        List<OvertimeInterval> overtime = new ArrayList<>();
+        int limit = calendar.getWorkingHoursPerDay();
+        // the last segment always has a load of 0
+        for (int segment = 0; segment < this.loads.length - 1; segment++) {
+            if (this.loads[segment] <= limit) continue;
+            LocalDate firstDay = calendar.firstWorkingDayFrom(LocalDate.ofEpochDay(this.segmentStarts[segment]));
+            LocalDate lastDay = calendar.lastWorkingDayUntil(LocalDate.ofEpochDay(this.segmentStarts[segment + 1] - 1));
+            int numWorkingDays = calendar.getNumWorkingDays(firstDay, lastDay);
+            if (numWorkingDays > 0) {
+                overtime.add(new OvertimeInterval(this.employee, firstDay, lastDay,
+                        this.loads[segment], this.loads[segment] - limit, numWorkingDays));
+            }
+        }
+        return overtime;
+    }
+}
@@ -0,0 +1,151 @@
+import utils.MonthlyWorkingDays;
+
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * The manpower spends per calendar month across all projects of a portfolio
+ * Months are distinguished by year, so projects that cross a year boundary
+ * and portfolios that span several planning years are reported correctly
+ * The spends are kept in a dense array indexed from the earliest month of the portfolio,
+ * which is filled in a single pass over the projects and their working days per month
+ */
+public class MonthlySpendReport {
+    private int firstMonth = 0;                 // the proleptic month (year * 12 + month - 1) of index 0
+    private long[] spends = new long[0];        // the spend of every month
+    private long[] cumulativeSpends = null;     // the running totals, calculated on first use
+
+    public MonthlySpendReport(Collection<Project> projects) {
+        for (Project project : projects) {
+            if (project.getCommittedHoursPerDay().isEmpty()) continue;
+            add(project, project.calculateDailyManpowerCost());
+        }
+    }
+
+    private static int prolepticMonth(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private static YearMonth yearMonth(int prolepticMonth) {
+        return YearMonth.of(Math.floorDiv(prolepticMonth, 12), Math.floorMod(prolepticMonth, 12) + 1);
+    }
+
+    /**
+     * adds a daily cost to the months of the working days of a project
+     * a negative cost removes spends of the project
+     *
+     * @param project
+     * @param dailyCost
+     */
+    void add(Project project, long dailyCost) {
+        this.cumulativeSpends = null;
+
+        MonthlyWorkingDays workdaysPerMonth = project.getMonthlyWorkingDays();
+        if (workdaysPerMonth.size() == 0) return;
+        int first = prolepticMonth(workdaysPerMonth.getFirstMonth());
+        ensureRange(first, first + workdaysPerMonth.size() - 1);
+        int offset = first - this.firstMonth;
+        for (int i = 0; i < workdaysPerMonth.size(); i++) {
+            this.spends[offset + i] += workdaysPerMonth.getCount(i) * dailyCost;
+        }
+    }
+
+    /**
+     * grows the array of spends such that it covers the months from first to last
+     */
+    private void ensureRange(int first, int last) {
+        if (this.spends.length == 0) {
+            this.firstMonth = first;
+            this.spends = new long[last - first + 1];
+            return;
+        }
+        int newFirst = Math.min(first, this.firstMonth);
+        int newLast = Math.max(last, this.firstMonth + this.spends.length - 1);
+        if (newFirst < this.firstMonth || newLast - newFirst + 1 > this.spends.length) {
+            long[] newSpends = new long[newLast - newFirst + 1];
+            System.arraycopy(this.spends, 0, newSpends, this.firstMonth - newFirst, this.spends.length);
+            this.firstMonth = newFirst;
+            this.spends = newSpends;
+        }
+    }
+
+    /**
+     * @return the number of months from the first month up to the last month with spends
+     */
+    public int size() {
+        return this.spends.length;
+    }
+
+    /**
+     * @return the earliest month with spends, or null if there are no spends at all
+     */
+    public YearMonth getFirstMonth() {
+        return (this.spends.length == 0 ? null : yearMonth(this.firstMonth));
+    }
+
+    /**
+     * @return the latest month with spends, or null if there are no spends at all
+     */
+    public YearMonth getLastMonth() {
+        return (this.spends.length == 0 ? null : yearMonth(this.firstMonth + this.spends.length - 1));
+    }
+
+    /**
+     * @param month
+     * @return the spend in the month, 0 outside the period of the report
+     */
+    public long getSpend(YearMonth month) {
+        int index = prolepticMonth(month) - this.firstMonth;
+        return (index >= 0 && index < this.spends.length ? this.spends[index] : 0);
+    }
+
+    /**
+     * @param month
+     * @return the running total of the spends from the first month up to and including the specified month
+     */
+    public long getCumulativeSpend(YearMonth month) {
+        int index = prolepticMonth(month) - this.firstMonth;
+        if (index < 0 || this.spends.length == 0) return 0;
+        return getCumulativeSpends()[Math.min(index, this.spends.length - 1)];
+    }
+
+    private long[] getCumulativeSpends() {
+        if (this.cumulativeSpends == null) {
+            this.cumulativeSpends = new long[this.spends.length];
+            long total = 0;
+            for (int i = 0; i < this.spends.length; i++) {
+                total += this.spends[i];
+                this.cumulativeSpends[i] = total;
+            }
+        }
+        return this.cumulativeSpends;
+    }
+
+    /**
+     * @return the spend of every month of the report, in chronological order
+     */
+    public SortedMap<YearMonth, Long> getMonthlySpends() {
+        SortedMap<YearMonth, Long> monthlySpends = new TreeMap<>();
+        for (int i = 0; i < this.spends.length; i++) {
+            monthlySpends.put(yearMonth(this.firstMonth + i), this.spends[i]);
+        }
+        return monthlySpends;
+    }
+
+    /**
+     * @return the running total of the spends at every month of the report, in chronological order
+     */
+    public SortedMap<YearMonth, Long> getCumulativeMonthlySpends() {
+        SortedMap<YearMonth, Long> cumulativeMonthlySpends = new TreeMap<>();
+        long[] cumulativeSpends = getCumulativeSpends();
+        for (int i = 0; i < cumulativeSpends.length; i++) {
+            cumulativeMonthlySpends.put(yearMonth(this.firstMonth + i), cumulativeSpends[i]);
+        }
+        return cumulativeMonthlySpends;
+    }
+
+    @Override
+    public String toString() {
+        return getMonthlySpends().toString();
+    }
+}
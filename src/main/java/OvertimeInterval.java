@@ -0,0 +1,60 @@
+import java.time.LocalDate;
+
+/**
+ * A period in which an employee has committed more hours per day than the working hours per day
+ */
+public class OvertimeInterval {
+    private final Employee employee;
+    private final LocalDate firstDay;       // the first working day of the period
+    private final LocalDate lastDay;        // the last working day of the period
+    private final int committedHoursPerDay; // the total committed hours on each working day of the period
+    private final int excessHoursPerDay;    // the hours above the working hours per day
+    private final int numWorkingDays;
+
+    public OvertimeInterval(Employee employee, LocalDate firstDay, LocalDate lastDay,
+                            int committedHoursPerDay, int excessHoursPerDay, int numWorkingDays) {
+        this.employee = employee;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.committedHoursPerDay = committedHoursPerDay;
+        this.excessHoursPerDay = excessHoursPerDay;
+        this.numWorkingDays = numWorkingDays;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    public LocalDate getLastDay() {
+        return lastDay;
+    }
+
+    public int getCommittedHoursPerDay() {
+        return committedHoursPerDay;
+    }
+
+    public int getExcessHoursPerDay() {
+        return excessHoursPerDay;
+    }
+
+    public int getNumWorkingDays() {
+        return numWorkingDays;
+    }
+
+    /**
+     * @return the total overtime hours across all working days of the period
+     */
+    public int getTotalExcessHours() {
+        return excessHoursPerDay * numWorkingDays;
+    }
+
+    // make sure OvertimeIntervals can be printed. The format is 'name(number) firstDay - lastDay: +excess'
+    @Override
+    public String toString() {
+        return employee + " " + firstDay + " - " + lastDay + ": +" + excessHoursPerDay + "h";
+    }
+}
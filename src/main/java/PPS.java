@@ -1,4 +1,7 @@
+import utils.IntIntMap;
+import utils.MonthlyWorkingDays;
 import utils.SLF4J;
+import utils.WorkingCalendar;
 import utils.XMLParser;
 
 import javax.xml.stream.XMLStreamConstants;
@@ -6,9 +9,13 @@ import java.time.LocalDate;
 import java.time.Month;
 import java.time.format.TextStyle;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class PPS {
     private static final int MIN_ASSIGNMENT_COUNT = 10;
@@ -18,16 +25,29 @@ public class PPS {
     private int planningYear;                   // the year indicates the period of start and end dates of the projects
     private Set<Employee> employees;
     private Set<Project> projects;
-
-    private PPS() {
+    private WorkingCalendar calendar;   // the working days and hours of the planning system
+    private ForkJoinPool forkJoinPool;  // the pool to run the statistics in parallel mode, null for sequential mode
+    private PortfolioAggregates aggregates; // running totals, kept up to date on every change
+    private ProjectIntervalIndex intervalIndex; // the projects by their active period
+    private AvailabilityIndex availabilityIndex; // the load timelines of the employees
+    private IdRegistry ids = new IdRegistry();  // the dense ids of the employees and projects of the system
+    private CommitmentStore commitmentStore;    // the columnar snapshot of the commitments, created on first use
+    private final ProjectListener storeInvalidator = (project, employee, hoursPerDay, newAssignment) ->
+            this.commitmentStore = null;
+
+    private PPS(WorkingCalendar calendar) {
         this.name = "none";
         this.planningYear = 2000;
         this.projects = new TreeSet<>();
         this.employees = new TreeSet<>();
+        this.calendar = calendar;
+        this.aggregates = new PortfolioAggregates(this.ids);
+        this.intervalIndex = new ProjectIntervalIndex(this.projects);
+        this.availabilityIndex = new AvailabilityIndex(this.ids, calendar);
     }
 
-    private PPS(String resourceName, int year) {
-        this();
+    private PPS(String resourceName, int year, WorkingCalendar calendar) {
+        this(calendar);
         this.name = resourceName;
         this.planningYear = year;
     }
@@ -39,6 +59,18 @@ public class PPS {
      * @return
      */
     public static PPS importFromXML(String resourceName) {
+        return importFromXML(resourceName, WorkingCalendar.STANDARD);
+    }
+
+    /**
+     * Loads a complete configuration from an XML file
+     * the working days of all projects will be determined by the specified calendar
+     *
+     * @param resourceName the XML file name to be found in the resources folder
+     * @param calendar
+     * @return
+     */
+    public static PPS importFromXML(String resourceName, WorkingCalendar calendar) {
         XMLParser xmlParser = new XMLParser(resourceName);
 
         try {
@@ -47,10 +79,17 @@ public class PPS {
             int year = xmlParser.getIntegerAttributeValue(null, "year", 2000);
             xmlParser.nextTag();
 
-            PPS pps = new PPS(resourceName, year);
+            PPS pps = new PPS(resourceName, year, calendar);
 
-            Project.importProjectsFromXML(xmlParser, pps.projects);
-            Employee.importEmployeesFromXML(xmlParser, pps.employees, pps.projects);
+            ImportLinker linker = new ImportLinker();
+            Project.importProjectsFromXML(xmlParser, pps.projects, pps.calendar, linker);
+            // resolve the project references of the employees by code
+            Employee.importEmployeesFromXML(xmlParser, pps.employees, Project.indexByCode(pps.projects));
+            // and the commitments of the projects by employee number
+            linker.link(pps.employees);
+            pps.aggregates = PortfolioAggregates.of(pps.ids, pps.employees, pps.projects);
+            pps.intervalIndex = new ProjectIntervalIndex(pps.projects);
+            pps.projects.forEach(pps::follow);
 
             return pps;
 
@@ -78,44 +117,61 @@ public class PPS {
             return;
         }
 
+        // make sure the working days of all projects are available from a single batch calculation
+        Project.calculateNumWorkingDays(this.projects);
+        PlanningStatistics statistics = calculatePlanningStatistics(e -> e.getHourlyWage() <= 30);
+
         System.out.printf("%d employees have been assigned to %d projects:\n\n",
                 this.employees.size(), this.projects.size());
         System.out.printf("1. The average hourly wage of all employees is %.2f\n",
-                calculateAverageHourlyWage());
+                statistics.getAverageHourlyWage());
         System.out.printf("2. The longest project is '%s' with %d available working days\n",
-                calculateLongestProject(), calculateLongestProject().getNumWorkingDays());
+                statistics.getLongestProject(), statistics.getLongestProject().getNumWorkingDays());
         System.out.printf("3. The following employees have the broadest assignment in no less than %d different projects:\n%s\n",
-                MIN_ASSIGNMENT_COUNT, calculateMostInvolvedEmployees().toString());
+                statistics.getMinAssignmentCount(), statistics.getMostInvolvedEmployees().toString());
         System.out.printf("4. The total budget of committed project manpower is %d\n",
-                calculateTotalManpowerBudget());
+                statistics.getTotalManpowerBudget());
         System.out.printf("5. Below is an overview of total managed budget by junior employees (hourly wage <= 30):\n%s\n",
-                calculateManagedBudgetOverview(e -> e.getHourlyWage() <= 30).toString());
+                statistics.getManagedBudgetOverview().toString());
         System.out.printf("6. Below is an overview of cumulative monthly project spends:\n%s\n",
-                calculateCumulativeMonthlySpends() == null ? "" : calculateCumulativeMonthlySpends().toString());
+                statistics.getCumulativeMonthlySpends().toString());
+    }
+
+    /**
+     * calculates all planning statistics in a single pass over the employees and projects
+     *
+     * @param managerFilter selects the employees to be included in the managed budget overview
+     * @return
+     */
+    public PlanningStatistics calculatePlanningStatistics(Predicate<Employee> managerFilter) {
+        if (this.forkJoinPool == null) {
+            return PlanningStatistics.calculate(this.employees, this.projects, MIN_ASSIGNMENT_COUNT, managerFilter);
+        }
+        return PlanningStatistics.calculateParallel(this.forkJoinPool,
+                this.employees, this.projects, MIN_ASSIGNMENT_COUNT, managerFilter);
     }
 
     /**
      * calculates the average hourly wage of all known employees in this system
+     * from the running wage total, which is maintained as employees join the system
      *
      * @return
      */
     public double calculateAverageHourlyWage() {
-        return employees.stream() // Stream the content of the Employee set
-                .mapToDouble(Employee::getHourlyWage) // Calculate per employee what there hourly wage is
-                .average() // Calculate the average wage of all the employees in this stream
-                .orElse(0.0); // If there are no employees return the value 0.0
+        return this.aggregates.getAverageHourlyWage();
     }
 
     /**
      * finds the project with the highest number of available working days.
-     * (if more than one project with the highest number is found, any one is returned)
+     * (if more than one project with the highest number is found, the first one by code is returned,
+     * also in parallel mode)
      *
      * @return
      */
     public Project calculateLongestProject() {
-        return projects.stream() // Stream the content of the projects set
+        return evaluate(() -> streamOf(projects) // Stream the content of the projects set
                 .max(Comparator.comparing(Project::getNumWorkingDays)) // Check each project for their number of working days and save the highest value
-                .orElse(null); // If there are no projects return null
+                .orElse(null)); // If there are no projects return null
     }
 
     /**
@@ -123,13 +179,12 @@ public class PPS {
      * based on the registration of committed hours per day per employee,
      * the number of working days in each project
      * and the hourly rate of each employee
+     * the running total is maintained on every change of the projects and commitments in the system
      *
      * @return
      */
     public int calculateTotalManpowerBudget() {
-        return projects.stream() // Stream the content of the projects set
-                .mapToInt(Project::calculateManpowerBudget) // Get the manpower budget of each project in the stream
-                .sum(); // Sum up all the manpower budgets of each project in the stream
+        return this.aggregates.getTotalManpowerBudget();
     }
 
     /**
@@ -140,34 +195,69 @@ public class PPS {
      * @return
      */
     public Set<Employee> calculateMostInvolvedEmployees() {
-          return employees.stream() // Stream the content of the employees set
-                  .filter((employee) -> // Filter each employee in this stream
-                          employee.getAssignedProjects().size() >= MIN_ASSIGNMENT_COUNT )
+        // NOTE: Based on the wording of the output example, the employees that are assigned to
+        // no less than MIN_ASSIGNMENT_COUNT projects are returned
+        // The employees with the true highest involvement are found by findMaximallyInvolvedEmployees
+        return findEmployeesWithMinAssignments(MIN_ASSIGNMENT_COUNT);
+    }
 
-                            // NOTE: Allow the employee object to go through if their assigned project count is higher or equal than MIN_ASSIGNMENT_COUNT
-                            // There is also another way to interpret the method filter implementation which is based on the value of the employee with the
-                            // highest involvement which can be calculated by replacing MIN_ASSIGNMENT_COUNT with
-                            // employees.stream().mapToInt( (e) -> e.getAssignedProjects().size() ).max().getAsInt()
-                            // But we used the first solution based on the wording of the output example
+    /**
+     * finds the employees that are assigned to at least the specified number of different projects
+     * from the index of assignment counts, visiting only the employees that qualify
+     *
+     * @param minAssignmentCount
+     * @return  the employees, sorted by name
+     */
+    public Set<Employee> findEmployeesWithMinAssignments(int minAssignmentCount) {
+        return this.aggregates.getInvolvementIndex().findWithMinCount(minAssignmentCount);
+    }
 
-                  .collect( Collectors.toCollection( () -> // Collect the filtered employees
-                          new TreeSet<>( Comparator.comparing(Employee::getName) ) ) ); // Add the employees to a new treeset based on their name
+    /**
+     * finds all employees that are assigned to the highest number of different projects
+     *
+     * @return  the employees, sorted by name; empty if no employee is assigned to any project
+     */
+    public Set<Employee> findMaximallyInvolvedEmployees() {
+        InvolvementIndex involvementIndex = this.aggregates.getInvolvementIndex();
+        return involvementIndex.findWithMinCount(Math.max(1, involvementIndex.getMaxCount()));
+    }
+
+    /**
+     * finds the k employees that are assigned to the highest numbers of different projects
+     * (employees with equal numbers of projects are selected by ascending employee number)
+     *
+     * @param k
+     * @return  at most k employees, by descending number of assigned projects; empty if k is not positive
+     */
+    public List<Employee> findTopInvolvedEmployees(int k) {
+        return this.aggregates.getInvolvementIndex().findTop(k);
     }
 
     /**
      * Calculates an overview of total managed budget per employee that complies with the filter predicate
      * The total managed budget of an employee is the sum of all man power budgets of all projects
      * that are being managed by this employee
+     * the managed budgets are taken from the running totals per manager
      *
      * @param filter
      * @return
      */
     public Map<Employee, Integer> calculateManagedBudgetOverview(Predicate<Employee> filter) {
-        return employees.stream() // Stream the content of the employees set
+        return evaluate(() -> streamOf(employees) // Stream the content of the employees set
                 .filter(filter) // Filter the employees based on the predicate property filter
                 .collect(Collectors.toMap( // Add the employees that pass the filter to a new map
                         e -> e,  // The key of the map entry is the employee object
-                        Employee::calculateManagedBudget)); // The value of the map entry is the managed budged of that employee
+                        aggregates::getManagedBudget))); // The value of the map entry is the managed budged of that employee
+    }
+
+    /**
+     * Calculates the total managed budget of all managers in the system
+     * in a single pass over the projects, grouped by their managers
+     *
+     * @return the total managed budget by employee number of the manager
+     */
+    public IntIntMap calculateManagedBudgets() {
+        return this.aggregates.calculateManagedBudgets();
     }
 
     /**
@@ -178,37 +268,213 @@ public class PPS {
      * @return
      */
     public Map<Month, Integer> calculateCumulativeMonthlySpends() {
-        // TreeMap to store the total amount of monthly spends, sorted ascending by month
-        Map<Month, Integer> totalMonthlySpends = new TreeMap<>();
-
-        // Iterate over every project
-        projects.forEach(p -> {
-            // HashMap to store the total work days for each month
-            Map<Month, Integer> workdaysPerMonth = new HashMap<>();
-
-            // Iterate over all the working days of the project
-            p.getWorkingDays().forEach(localDate ->
-                // For every month, add the amount of workdays to the map
-                workdaysPerMonth.merge(localDate.getMonth(), 1, Math::addExact)
-            );
-
-            // Iterate over every month with its work days
-            workdaysPerMonth.forEach((key, value) ->
-                // Go over the committed hours per day for the project
-                p.getCommittedHoursPerDay().forEach((employee, integer) -> {
-                    // For every worked hour, calculate the costs and add it to the totals map
-                    totalMonthlySpends.merge(key, value * (employee.getHourlyWage() * integer), Math::addExact);
+        return evaluate(() -> streamOf(projects) // Stream the content of the projects set
+                .filter(p -> !p.getCommittedHoursPerDay().isEmpty()) // Only projects with commitments have spends
+                .flatMap(p -> {
+                    // The total work days for each month of the project, calculated from the month boundaries
+                    MonthlyWorkingDays workdaysPerMonth = p.getMonthlyWorkingDays();
+                    // For every month with work days, calculate the costs of all commitments on those days
+                    return IntStream.range(0, workdaysPerMonth.size())
+                            .filter(i -> workdaysPerMonth.getCount(i) > 0)
+                            .mapToObj(i -> Map.entry(workdaysPerMonth.getMonth(i).getMonth(),
+                                    workdaysPerMonth.getCount(i) * p.calculateDailyManpowerCost()));
                 })
-            );
-        });
+                .collect(Collectors.toMap( // Add the costs to the totals map
+                        Map.Entry::getKey, // The key of the map entry is the month
+                        Map.Entry::getValue, // The value of the map entry is the monthly spend
+                        Math::addExact, // Spends of different projects in the same month are summed up
+                        TreeMap::new))); // TreeMap to store the total amount of monthly spends, sorted ascending by month
+    }
+
+    /**
+     * Calculates an overview of monthly spends across all projects in the system
+     * distinguishing the same month in different years, with a running total view
+     * the daily costs of the projects are taken from a single scan over the commitment store
+     *
+     * @return
+     */
+    public MonthlySpendReport calculateMonthlySpendReport() {
+        return getCommitmentStore().calculateMonthlySpendReport();
+    }
+
+    /**
+     * Calculates the daily spends across all projects in the system as a time series
+     * from which the spends per day, week, month or quarter can be queried
+     * the working days are determined by the calendar of each project
+     *
+     * @return
+     */
+    public SpendTimeSeries calculateSpendTimeSeries() {
+        return new SpendTimeSeries(this.projects);
+    }
+
+    /**
+     * finds all periods in which employees have committed more hours per day across their projects
+     * than the working hours per day of the calendar of the system
+     * the load timeline of each employee is calculated independently, in parallel mode by the fork/join pool
+     *
+     * @return the overtime periods, by employee and in chronological order
+     */
+    public List<OvertimeInterval> calculateOvertime() {
+        return evaluate(() -> streamOf(employees) // Stream the content of the employees set
+                .flatMap(e -> LoadTimeline.of(e).findOvertime(calendar).stream()) // Sweep the commitments of each employee
+                .collect(Collectors.toList())); // Collect the overtime periods of all employees in order
+    }
+
+    /**
+     * finds the employees that have at least the specified number of free hours per day
+     * on every working day between firstDay and lastDay, both inclusive
+     * the free hours are the working hours per day of the calendar minus the commitments on any project
+     *
+     * @param minFreeHoursPerDay
+     * @param firstDay
+     * @param lastDay
+     * @return the available employees, cheapest first
+     */
+    public List<Employee> findAvailableEmployees(int minFreeHoursPerDay, LocalDate firstDay, LocalDate lastDay) {
+        return this.availabilityIndex.findAvailable(this.employees, minFreeHoursPerDay, firstDay, lastDay);
+    }
+
+    /**
+     * calculates the earliest date on which a new project can start,
+     * such that all required employees stay within the working hours per day of the calendar
+     * during the complete project, next to their current commitments
+     *
+     * @param numWorkingDays    the duration of the new project
+     * @param commitments       the hours per day that the new project requires of each employee
+     * @param notBefore         the first date that may be considered
+     * @return the earliest feasible start date, or null if some commitment alone exceeds the working hours per day
+     */
+    public LocalDate findEarliestProjectStart(int numWorkingDays, Map<Employee, Integer> commitments, LocalDate notBefore) {
+        return this.availabilityIndex.findEarliestStart(numWorkingDays, commitments, notBefore);
+    }
+
+    /**
+     * proposes other dates for the projects that lower the peak of the total daily manpower cost of the portfolio
+     * projects are moved by at most maxShift working days of the calendar and keep their duration and commitments
+     * the independent search chains run in the fork/join pool in parallel mode, and one by one in sequential mode
+     *
+     * @param maxShift          the maximum number of working days that a project may be moved in either direction
+     * @param numChains         the number of independent search chains
+     * @param numIterations     the number of moves that each chain tries
+     * @param seed
+     * @return the proposed re-plan; the projects themselves are not changed
+     */
+    public LevellingPlan calculateLevellingPlan(int maxShift, int numChains, int numIterations, long seed) {
+        ResourceLevellingOptimizer optimizer = new ResourceLevellingOptimizer(this.projects, this.calendar, maxShift);
+        return evaluate(() -> optimizer.optimize(numChains, numIterations, seed, this.forkJoinPool != null));
+    }
+
+    /**
+     * finds all projects that are active on the specified date
+     *
+     * @param date
+     * @return the projects, sorted by start date
+     */
+    public List<Project> findProjectsActiveOn(LocalDate date) {
+        return this.intervalIndex.findActiveOn(date);
+    }
+
+    /**
+     * finds all projects that are active on any day between firstDay and lastDay, both inclusive
+     *
+     * @param firstDay
+     * @param lastDay
+     * @return the projects, sorted by start date
+     */
+    public List<Project> findProjectsOverlapping(LocalDate firstDay, LocalDate lastDay) {
+        return this.intervalIndex.findOverlapping(firstDay, lastDay);
+    }
 
-        return totalMonthlySpends;
+    /**
+     * provides a stream of the elements, which is a parallel stream in parallel mode
+     *
+     * @param elements
+     * @return
+     */
+    private <E> Stream<E> streamOf(Collection<E> elements) {
+        return (this.forkJoinPool == null ? elements.stream() : elements.parallelStream());
+    }
+
+    /**
+     * evaluates a calculation, within the fork/join pool in parallel mode
+     * such that parallel streams of the calculation are split across the workers of that pool
+     * all reductions on the ordered streams are merged in encounter order, so the results do not depend on the mode
+     *
+     * @param calculation
+     * @return
+     */
+    private <T> T evaluate(Supplier<T> calculation) {
+        if (this.forkJoinPool == null) {
+            return calculation.get();
+        }
+        return this.forkJoinPool.invoke(ForkJoinTask.adapt(calculation::get));
+    }
+
+    /**
+     * Switches the statistics calculations between sequential and parallel mode
+     * in parallel mode the projects and employees are split into chunks that are aggregated by the workers
+     * of the specified pool, after which the partial aggregates are merged in a deterministic order
+     *
+     * @param forkJoinPool  the pool to run the calculations, or null for sequential mode
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return this.forkJoinPool;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * creates a what-if scenario on top of this planning system
+     * the scenario shares all unchanged projects and employees with this system,
+     * so this system must not be changed while its scenarios are in use
+     *
+     * @return
+     */
+    public Scenario fork() {
+        return new Scenario(this);
+    }
+
+    /**
+     * registers the indices of the system that follow the commitments of a project of the system
+     *
+     * @param project
+     */
+    private void follow(Project project) {
+        project.addListener(this.availabilityIndex);
+        project.addListener(this.storeInvalidator);
+        this.commitmentStore = null;
+    }
+
+    /**
+     * provides the columnar snapshot of all commitments on the projects of the system
+     * the snapshot is created on first use and kept until the commitments change
+     *
+     * @return
+     */
+    public CommitmentStore getCommitmentStore() {
+        CommitmentStore store = this.commitmentStore;
+        if (store == null) {
+            store = new CommitmentStore(this.ids, this.employees, this.projects);
+            this.commitmentStore = store;
+        }
+        return store;
+    }
+
+    IdRegistry getIds() {
+        return this.ids;
+    }
+
+    PortfolioAggregates getAggregates() {
+        return this.aggregates;
+    }
+
     public Set<Project> getProjects() {
         return this.projects;
     }
@@ -217,14 +483,33 @@ public class PPS {
         return this.employees;
     }
 
+    public WorkingCalendar getCalendar() {
+        return this.calendar;
+    }
+
     /**
      * A builder helper class to compose a small PPS using method-chaining of builder methods
      */
     public static class Builder {
         PPS pps;
+        // indices of the employees by number and of the projects by code, to find them in O(1)
+        // the first employee that has been added with a number is found by that number
+        private IntIntMap employeeSlots = new IntIntMap();
+        private List<Employee> employeesBySlot = new ArrayList<>();
+        private Map<String, Project> projectsByCode = new HashMap<>();
 
         public Builder() {
-            this.pps = new PPS();
+            this(WorkingCalendar.STANDARD);
+        }
+
+        /**
+         * Compose a PPS that plans with the specified working calendar
+         * projects that are added should have been created with the same calendar
+         *
+         * @param calendar
+         */
+        public Builder(WorkingCalendar calendar) {
+            this.pps = new PPS(calendar);
         }
 
         /**
@@ -234,10 +519,26 @@ public class PPS {
          * @return
          */
         public Builder addEmployee(Employee employee) {
-            pps.employees.add(employee);
+            if (pps.employees.add(employee)) {
+                pps.aggregates.addEmployee(employee);
+                pps.commitmentStore = null;
+                if (!this.employeeSlots.containsKey(employee.getNumber())) {
+                    this.employeeSlots.put(employee.getNumber(), this.employeesBySlot.size());
+                    this.employeesBySlot.add(employee);
+                }
+            }
             return this;
         }
 
+        /**
+         * @param employeeNr
+         * @return the employee in the PPS with the number, or null if there is none
+         */
+        private Employee findEmployee(int employeeNr) {
+            int slot = this.employeeSlots.getOrDefault(employeeNr, -1);
+            return (slot < 0 ? null : this.employeesBySlot.get(slot));
+        }
+
         /**
          * Add another project to the PPS
          * register the specified manager as the manager of the new
@@ -248,16 +549,21 @@ public class PPS {
          */
         public Builder addProject(Project project, Employee manager) {
             // Check if manager code is already present
-            Employee uniqueManager = manager;
-            for (Employee m: pps.employees) {
-                if(m.getNumber() == manager.getNumber()){
-                    uniqueManager = m;
-                };
+            Employee uniqueManager = findEmployee(manager.getNumber());
+            if (uniqueManager == null) {
+                uniqueManager = manager;
+                addEmployee(uniqueManager);
             }
-            if (!pps.employees.contains(uniqueManager)) addEmployee(uniqueManager);
-            uniqueManager.getManagedProjects().add(project);
 
-            pps.projects.add(project);
+            if (pps.projects.add(project)) {
+                this.projectsByCode.putIfAbsent(project.getCode(), project);
+                pps.aggregates.addProject(project);
+                pps.intervalIndex.add(project);
+                pps.follow(project);
+            }
+            if (uniqueManager.getManagedProjects().add(project)) {
+                pps.aggregates.addManagedProject(uniqueManager, project);
+            }
             return this;
         }
 
@@ -273,16 +579,8 @@ public class PPS {
          * @return
          */
         public Builder addCommitment(String projectCode, int employeeNr, int hoursPerDay) {
-            Project project = null;
-            Employee employee = null;
-
-            for (Project p : pps.projects) {
-                if (p.getCode().equals(projectCode)) project = p;
-            }
-
-            for (Employee e : pps.employees) {
-                if (e.getNumber() == employeeNr) employee = e;
-            }
+            Project project = this.projectsByCode.get(projectCode);
+            Employee employee = findEmployee(employeeNr);
 
             if (project != null && employee != null) {
                 project.addCommitment(employee, hoursPerDay);
@@ -291,12 +589,40 @@ public class PPS {
             return this;
         }
 
+        /**
+         * Add a batch of commitments, commitment i being hoursPerDay[i] on the project identified by projectCodes[i]
+         * for the employee identified by employeeNrs[i]
+         * Commitments of unknown projects or employees are skipped, as with addCommitment
+         *
+         * @param projectCodes
+         * @param employeeNrs
+         * @param hoursPerDay
+         * @return
+         */
+        public Builder addCommitments(String[] projectCodes, int[] employeeNrs, int[] hoursPerDay) {
+            Project project = null;
+            for (int i = 0; i < projectCodes.length; i++) {
+                // commitments are often grouped by project
+                if (project == null || !project.getCode().equals(projectCodes[i])) {
+                    project = this.projectsByCode.get(projectCodes[i]);
+                }
+                Employee employee = findEmployee(employeeNrs[i]);
+                if (project != null && employee != null) {
+                    project.addCommitment(employee, hoursPerDay[i]);
+                }
+            }
+            return this;
+        }
+
         /**
          * Complete the PPS being build
          *
          * @return
          */
         public PPS build() {
+            Project.calculateNumWorkingDays(this.pps.projects);
+            // the queries of the built system find all projects in the sorted index
+            this.pps.intervalIndex.merge();
             return this.pps;
         }
     }
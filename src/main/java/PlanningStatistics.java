@@ -0,0 +1,226 @@
+import utils.MonthlyWorkingDays;
+
+import java.time.Month;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * The statistics of a project planning system, as reported by PPS.printPlanningStatistics
+ * All statistics are calculated in a single pass over the employees
+ * and a single pass over the projects with their commitments
+ * In parallel mode the passes are split into chunks, of which the partial statistics
+ * are merged in the order of the chunks, such that the results equal those of the sequential passes
+ */
+public class PlanningStatistics {
+    // the maximum number of projects and employees to be aggregated by a single fork/join task
+    private static final int CHUNK_SIZE = 256;
+
+    private final int minAssignmentCount;           // the minimum number of projects of the most involved employees
+    private final Predicate<Employee> managerFilter; // selects the employees in the managed budget overview
+
+    private long hourlyWageSum = 0;
+    private int numEmployees = 0;
+    private Project longestProject = null;
+    private Set<Employee> mostInvolvedEmployees = new TreeSet<>(Comparator.comparing(Employee::getName));
+    private int totalManpowerBudget = 0;
+    private Map<Employee, Integer> managedBudgetOverview = new HashMap<>();
+    private int[] monthlySpends = new int[Month.values().length];
+    private boolean[] spendMonths = new boolean[Month.values().length];
+
+    private PlanningStatistics(int minAssignmentCount, Predicate<Employee> managerFilter) {
+        this.minAssignmentCount = minAssignmentCount;
+        this.managerFilter = managerFilter;
+    }
+
+    /**
+     * calculates the statistics sequentially
+     *
+     * @param employees
+     * @param projects
+     * @param minAssignmentCount    the minimum number of projects of the most involved employees
+     * @param managerFilter         selects the employees in the managed budget overview
+     * @return
+     */
+    public static PlanningStatistics calculate(Collection<Employee> employees, Collection<Project> projects,
+                                               int minAssignmentCount, Predicate<Employee> managerFilter) {
+        PlanningStatistics statistics = new PlanningStatistics(minAssignmentCount, managerFilter);
+        // visit the projects first, such that their budgets are available for the managers
+        for (Project project : projects) {
+            statistics.add(project);
+        }
+        for (Employee employee : employees) {
+            statistics.add(employee);
+        }
+        return statistics;
+    }
+
+    /**
+     * calculates the statistics in balanced chunks of projects and employees on the specified pool
+     *
+     * @param forkJoinPool
+     * @param employees
+     * @param projects
+     * @param minAssignmentCount    the minimum number of projects of the most involved employees
+     * @param managerFilter         selects the employees in the managed budget overview
+     * @return
+     */
+    public static PlanningStatistics calculateParallel(ForkJoinPool forkJoinPool,
+                                                       Collection<Employee> employees, Collection<Project> projects,
+                                                       int minAssignmentCount, Predicate<Employee> managerFilter) {
+        Object[] elements = new Object[projects.size() + employees.size()];
+        int i = 0;
+        for (Project project : projects) elements[i++] = project;
+        for (Employee employee : employees) elements[i++] = employee;
+        return forkJoinPool.invoke(new ChunkTask(elements, 0, elements.length, minAssignmentCount, managerFilter));
+    }
+
+    /**
+     * aggregates the projects and employees in elements[from, to)
+     * by splitting the range into halves until the chunks are small enough
+     */
+    private static class ChunkTask extends RecursiveTask<PlanningStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] elements;
+        private final int from, to;
+        private final int minAssignmentCount;
+        private final Predicate<Employee> managerFilter;
+
+        ChunkTask(Object[] elements, int from, int to,
+                  int minAssignmentCount, Predicate<Employee> managerFilter) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.minAssignmentCount = minAssignmentCount;
+            this.managerFilter = managerFilter;
+        }
+
+        @Override
+        protected PlanningStatistics compute() {
+            if (this.to - this.from <= CHUNK_SIZE) {
+                PlanningStatistics statistics = new PlanningStatistics(this.minAssignmentCount, this.managerFilter);
+                for (int i = this.from; i < this.to; i++) {
+                    if (this.elements[i] instanceof Project) {
+                        statistics.add((Project) this.elements[i]);
+                    } else {
+                        statistics.add((Employee) this.elements[i]);
+                    }
+                }
+                return statistics;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            ChunkTask left = new ChunkTask(this.elements, this.from, middle, this.minAssignmentCount, this.managerFilter);
+            ChunkTask right = new ChunkTask(this.elements, middle, this.to, this.minAssignmentCount, this.managerFilter);
+            left.fork();
+            PlanningStatistics rightStatistics = right.compute();
+            return left.join().merge(rightStatistics);
+        }
+    }
+
+    /**
+     * accumulates all statistics of a single project with its commitments
+     *
+     * @param project
+     */
+    private void add(Project project) {
+        // keep the first project found with the highest number of working days
+        if (this.longestProject == null ||
+                project.getNumWorkingDays() > this.longestProject.getNumWorkingDays()) {
+            this.longestProject = project;
+        }
+
+        this.totalManpowerBudget += project.calculateManpowerBudget();
+
+        // only projects with commitments contribute to the spends
+        if (!project.getCommittedHoursPerDay().isEmpty()) {
+            int dailyCost = project.calculateDailyManpowerCost();
+            MonthlyWorkingDays workdaysPerMonth = project.getMonthlyWorkingDays();
+            for (int i = 0; i < workdaysPerMonth.size(); i++) {
+                int workdays = workdaysPerMonth.getCount(i);
+                if (workdays == 0) continue;
+                int month = workdaysPerMonth.getMonth(i).getMonthValue() - 1;
+                this.monthlySpends[month] = Math.addExact(this.monthlySpends[month], workdays * dailyCost);
+                this.spendMonths[month] = true;
+            }
+        }
+    }
+
+    /**
+     * accumulates all statistics of a single employee
+     * the budgets of managed projects are reused from the project pass
+     *
+     * @param employee
+     */
+    private void add(Employee employee) {
+        this.hourlyWageSum += employee.getHourlyWage();
+        this.numEmployees++;
+
+        if (employee.getAssignedProjects().size() >= this.minAssignmentCount) {
+            this.mostInvolvedEmployees.add(employee);
+        }
+
+        if (this.managerFilter.test(employee)) {
+            this.managedBudgetOverview.put(employee, employee.calculateManagedBudget());
+        }
+    }
+
+    /**
+     * merges the statistics of a next chunk of projects and employees into these statistics
+     *
+     * @param next  the statistics of the elements that follow the elements of these statistics
+     * @return      these statistics
+     */
+    private PlanningStatistics merge(PlanningStatistics next) {
+        this.hourlyWageSum += next.hourlyWageSum;
+        this.numEmployees += next.numEmployees;
+        // on equal numbers of working days, the first project remains the longest
+        if (this.longestProject == null || (next.longestProject != null &&
+                next.longestProject.getNumWorkingDays() > this.longestProject.getNumWorkingDays())) {
+            this.longestProject = next.longestProject;
+        }
+        this.mostInvolvedEmployees.addAll(next.mostInvolvedEmployees);
+        this.totalManpowerBudget += next.totalManpowerBudget;
+        this.managedBudgetOverview.putAll(next.managedBudgetOverview);
+        for (int month = 0; month < this.monthlySpends.length; month++) {
+            this.monthlySpends[month] = Math.addExact(this.monthlySpends[month], next.monthlySpends[month]);
+            this.spendMonths[month] |= next.spendMonths[month];
+        }
+        return this;
+    }
+
+    public double getAverageHourlyWage() {
+        return (this.numEmployees == 0 ? 0.0 : (double) this.hourlyWageSum / this.numEmployees);
+    }
+
+    public Project getLongestProject() {
+        return this.longestProject;
+    }
+
+    public int getMinAssignmentCount() {
+        return this.minAssignmentCount;
+    }
+
+    public Set<Employee> getMostInvolvedEmployees() {
+        return this.mostInvolvedEmployees;
+    }
+
+    public int getTotalManpowerBudget() {
+        return this.totalManpowerBudget;
+    }
+
+    public Map<Employee, Integer> getManagedBudgetOverview() {
+        return this.managedBudgetOverview;
+    }
+
+    public Map<Month, Integer> getCumulativeMonthlySpends() {
+        Map<Month, Integer> cumulativeMonthlySpends = new TreeMap<>();
+        for (Month month : Month.values()) {
+            if (this.spendMonths[month.ordinal()]) {
+                cumulativeMonthlySpends.put(month, this.monthlySpends[month.ordinal()]);
+            }
+        }
+        return cumulativeMonthlySpends;
+    }
+}
@@ -0,0 +1,223 @@
+import utils.IntIntMap;
+
+import java.util.*;
+
+/**
+ * Running totals over the employees and projects of a planning system
+ * The totals are updated in O(1) on every change that is made via the PPS.Builder
+ * or via Project.addCommitment, such that reading them takes constant time
+ * All per-employee and per-project state is kept in arrays indexed by the ids of the planning system
+ */
+class PortfolioAggregates implements ProjectListener {
+    private final IdRegistry ids;
+    private int totalManpowerBudget = 0;
+    private long hourlyWageSum = 0;
+    private int numEmployees = 0;
+    private int[] managedBudgets = new int[16];                         // per employee id of the managers in the portfolio
+    private InvolvementIndex involvementIndex = new InvolvementIndex(); // assignment counts per employee in the portfolio
+    private ProjectEntry[] projectEntries = new ProjectEntry[16];      // per project id of the followed projects
+
+    /**
+     * The registration of a project of which the commitments are being followed
+     */
+    private static class ProjectEntry {
+        final Project project;
+        boolean inPortfolio = false;                // whether the project contributes to the total budget
+        List<Employee> managers = new ArrayList<>(1); // the managers in the portfolio that manage the project
+
+        ProjectEntry(Project project) {
+            this.project = project;
+        }
+    }
+
+    PortfolioAggregates(IdRegistry ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * calculates the aggregates of a fully composed planning system
+     *
+     * @param ids       the ids of the planning system
+     * @param employees
+     * @param projects
+     * @return
+     */
+    static PortfolioAggregates of(IdRegistry ids, Collection<Employee> employees, Collection<Project> projects) {
+        PortfolioAggregates aggregates = new PortfolioAggregates(ids);
+        for (Project project : projects) {
+            aggregates.addProject(project);
+        }
+        for (Employee employee : employees) {
+            aggregates.register(employee);
+            for (Project project : employee.getManagedProjects()) {
+                aggregates.follow(project).managers.add(employee);
+            }
+        }
+        // all managed budgets at once, instead of per manager
+        for (ProjectEntry entry : aggregates.projectEntries) {
+            if (entry == null || entry.managers.isEmpty()) continue;
+            int budget = entry.project.calculateManpowerBudget();
+            for (Employee manager : entry.managers) {
+                aggregates.addManagedBudget(manager, budget);
+            }
+        }
+        return aggregates;
+    }
+
+    /**
+     * calculates the managed budgets of all managers in the portfolio
+     * in a single pass over the projects, grouped by their managers
+     * the memoized budgets of the projects are reused
+     *
+     * @return  the managed budget by employee number of the manager
+     */
+    IntIntMap calculateManagedBudgets() {
+        IntIntMap budgets = new IntIntMap(this.numEmployees);
+        for (ProjectEntry entry : this.projectEntries) {
+            if (entry == null || entry.managers.isEmpty()) continue;
+            int budget = entry.project.calculateManpowerBudget();
+            for (Employee manager : entry.managers) {
+                budgets.merge(manager.getNumber(), budget);
+            }
+        }
+        return budgets;
+    }
+
+    private ProjectEntry follow(Project project) {
+        int id = this.ids.idOf(project);
+        if (id >= this.projectEntries.length) {
+            this.projectEntries = Arrays.copyOf(this.projectEntries, Math.max(2 * this.projectEntries.length, id + 1));
+        }
+        ProjectEntry entry = this.projectEntries[id];
+        if (entry == null) {
+            entry = new ProjectEntry(project);
+            this.projectEntries[id] = entry;
+            project.addListener(this);
+        }
+        return entry;
+    }
+
+    /**
+     * @param project
+     * @return the entry of the project, or null if the project is not followed
+     */
+    private ProjectEntry entryOf(Project project) {
+        int id = this.ids.findId(project);
+        return (id >= 0 && id < this.projectEntries.length ? this.projectEntries[id] : null);
+    }
+
+    private void addManagedBudget(Employee manager, int budget) {
+        int id = this.ids.idOf(manager);
+        if (id >= this.managedBudgets.length) {
+            this.managedBudgets = Arrays.copyOf(this.managedBudgets, Math.max(2 * this.managedBudgets.length, id + 1));
+        }
+        this.managedBudgets[id] += budget;
+    }
+
+    /**
+     * registers an employee that has joined the portfolio
+     * including the budgets of all projects that the employee already manages
+     *
+     * @param employee
+     */
+    void addEmployee(Employee employee) {
+        register(employee);
+        for (Project project : employee.getManagedProjects()) {
+            addManagedProject(employee, project);
+        }
+    }
+
+    private void register(Employee employee) {
+        this.hourlyWageSum += employee.getHourlyWage();
+        this.numEmployees++;
+        this.involvementIndex.put(this.ids.idOf(employee), employee, employee.getAssignedProjects().size());
+    }
+
+    /**
+     * registers a project that has joined the portfolio
+     *
+     * @param project
+     */
+    void addProject(Project project) {
+        ProjectEntry entry = follow(project);
+        if (!entry.inPortfolio) {
+            entry.inPortfolio = true;
+            this.totalManpowerBudget += project.calculateManpowerBudget();
+        }
+    }
+
+    /**
+     * registers that a project has been added to the managed projects of an employee in the portfolio
+     *
+     * @param manager
+     * @param project
+     */
+    void addManagedProject(Employee manager, Project project) {
+        follow(project).managers.add(manager);
+        addManagedBudget(manager, project.calculateManpowerBudget());
+    }
+
+    @Override
+    public void commitmentAdded(Project project, Employee employee, int hoursPerDay, boolean newAssignment) {
+        ProjectEntry entry = entryOf(project);
+        if (entry == null) return;
+
+        int budgetIncrease = employee.getHourlyWage() * hoursPerDay * project.getNumWorkingDays();
+        if (entry.inPortfolio) {
+            this.totalManpowerBudget += budgetIncrease;
+        }
+        for (Employee manager : entry.managers) {
+            addManagedBudget(manager, budgetIncrease);
+        }
+        if (newAssignment) {
+            this.involvementIndex.increment(this.ids.findId(employee));
+        }
+    }
+
+    int getTotalManpowerBudget() {
+        return this.totalManpowerBudget;
+    }
+
+    double getAverageHourlyWage() {
+        return (this.numEmployees == 0 ? 0.0 : (double) this.hourlyWageSum / this.numEmployees);
+    }
+
+    /**
+     * @param manager
+     * @return the total budget of all projects managed by the employee, 0 for employees outside the portfolio
+     */
+    int getManagedBudget(Employee manager) {
+        int id = this.ids.findId(manager);
+        return (id >= 0 && id < this.managedBudgets.length ? this.managedBudgets[id] : 0);
+    }
+
+    /**
+     * @param employee
+     * @return the number of projects that the employee is assigned to, 0 for employees outside the portfolio
+     */
+    int getAssignmentCount(Employee employee) {
+        return this.involvementIndex.getCount(this.ids.findId(employee));
+    }
+
+    /**
+     * @param project
+     * @return whether the project contributes to the total budget
+     */
+    boolean isInPortfolio(Project project) {
+        ProjectEntry entry = entryOf(project);
+        return (entry != null && entry.inPortfolio);
+    }
+
+    /**
+     * @param project
+     * @return the managers in the portfolio of the project
+     */
+    List<Employee> getManagers(Project project) {
+        ProjectEntry entry = entryOf(project);
+        return (entry == null ? Collections.emptyList() : Collections.unmodifiableList(entry.managers));
+    }
+
+    InvolvementIndex getInvolvementIndex() {
+        return this.involvementIndex;
+    }
+}
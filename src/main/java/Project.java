@@ -1,10 +1,12 @@
-import utils.Calendar;
+import utils.MonthlyWorkingDays;
+import utils.WorkingCalendar;
+import utils.WorkingDayRange;
 import utils.XMLParser;
 
 import javax.xml.stream.XMLStreamException;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 public class Project implements Comparable<Project> {
     private static final int N_FLOORS = 10;
@@ -39,11 +41,23 @@ public class Project implements Comparable<Project> {
                                         // one employee may work on multiple different projects each day
                                         // employees will no overtime if more than 8 hours per day are committed
     private String title;
+    private WorkingCalendar calendar;   // the calendar that determines the working days of the project
+
+    // memoized calculation results, invalidated when the dates or commitments change
+    // they are filled lazily, also by the worker threads of the parallel statistics;
+    // all threads calculate the same value, and volatile makes a value that is written visible to the others
+    private volatile int numWorkingDays = -1;    // depends on the dates only
+    private volatile Integer dailyManpowerCost = null;
+    private volatile Integer manpowerBudget = null;
+
+    private List<ProjectListener> listeners = null;   // the aggregates that follow the commitments of the project
+    private int id = -1;                // the dense id within the planning system that the project has joined
 
     public Project(String projectCode) {
         this.code = projectCode;
         this.title = "Project " + projectCode;
         this.committedHoursPerDay = new HashMap<>();
+        this.calendar = WorkingCalendar.STANDARD;
     }
 
     public Project(int projectNr) {
@@ -57,16 +71,22 @@ public class Project implements Comparable<Project> {
 
     public Project(LocalDate startDate, LocalDate endDate) {
         this();
-        this.startDate = Calendar.firstWorkingDayFrom(startDate);
-        this.endDate = Calendar.lastWorkingDayUntil(endDate);
+        this.startDate = this.calendar.firstWorkingDayFrom(startDate);
+        this.endDate = this.calendar.lastWorkingDayUntil(endDate);
     }
 
     public Project(String code, String title,
                    LocalDate startDate, LocalDate endDate) {
+        this(code, title, startDate, endDate, WorkingCalendar.STANDARD);
+    }
+
+    public Project(String code, String title,
+                   LocalDate startDate, LocalDate endDate, WorkingCalendar calendar) {
         this(code);
         this.title = title;
-        this.startDate = Calendar.firstWorkingDayFrom(startDate);
-        this.endDate = Calendar.lastWorkingDayUntil(endDate);
+        this.calendar = calendar;
+        this.startDate = calendar.firstWorkingDayFrom(startDate);
+        this.endDate = calendar.lastWorkingDayUntil(endDate);
     }
 
     private static String calculateTitle(int projectNr) {
@@ -77,14 +97,17 @@ public class Project implements Comparable<Project> {
         return subjects[subjectIdx] + " - " + locations[locationIdx] + "-0" + floor;
     }
 
-    public static Set<Project> importProjectsFromXML(XMLParser xmlParser, Set<Project> projects) throws XMLStreamException {
+    public static Set<Project> importProjectsFromXML(XMLParser xmlParser, Set<Project> projects,
+                    WorkingCalendar calendar, ImportLinker linker) throws XMLStreamException {
         if (xmlParser.nextBeginTag("projects")) {
             xmlParser.nextTag();
             if (projects != null) {
                 Project project;
-                while ((project = importFromXML(xmlParser)) != null) {
+                while ((project = importFromXML(xmlParser, calendar, linker)) != null) {
                     projects.add(project);
                 }
+                // count the working days of all imported projects in one batch
+                calculateNumWorkingDays(projects);
             }
 
             xmlParser.findAndAcceptEndTag("projects");
@@ -93,7 +116,18 @@ public class Project implements Comparable<Project> {
         return null;
     }
 
-    public static Project importFromXML(XMLParser xmlParser) throws XMLStreamException {
+    /**
+     * imports a project
+     * its commitments are recorded by the linker, to be registered once the employees have been imported
+     *
+     * @param xmlParser
+     * @param calendar
+     * @param linker
+     * @return
+     * @throws XMLStreamException
+     */
+    public static Project importFromXML(XMLParser xmlParser, WorkingCalendar calendar,
+                                        ImportLinker linker) throws XMLStreamException {
         if (xmlParser.nextBeginTag("project")) {
             String code = xmlParser.getAttributeValue(null, "code");
             xmlParser.nextTag();
@@ -116,7 +150,8 @@ public class Project implements Comparable<Project> {
                 xmlParser.findAndAcceptEndTag("endDate");
             }
 
-            Project project = new Project(code, title, startDate, endDate);
+            Project project = new Project(code, title, startDate, endDate, calendar);
+            int projectIndex = linker.addProject(project);
 
             if (xmlParser.nextBeginTag("commitments")) {
                 xmlParser.nextTag();
@@ -124,9 +159,8 @@ public class Project implements Comparable<Project> {
                     int number = xmlParser.getIntegerAttributeValue(null, "employee", 0);
                     int hoursPerDay = Integer.valueOf(xmlParser.getElementText());
 
-                    // use an incomplete employee object to register the commitment
-                    // will be refreshed by employee import
-                    project.committedHoursPerDay.put(new Employee(number), hoursPerDay);
+                    // the employee is only known by number until the employees have been imported
+                    linker.addCommitment(projectIndex, number, hoursPerDay);
                     xmlParser.findAndAcceptEndTag("hoursPerDay");
                 }
                 xmlParser.findAndAcceptEndTag("commitments");
@@ -138,13 +172,53 @@ public class Project implements Comparable<Project> {
         return null;
     }
 
-    public static Project importReferenceFromXML(XMLParser xmlParser, Set<Project> projects) throws XMLStreamException {
+    /**
+     * calculates and memoizes the number of working days of all specified projects
+     * that have not been calculated before, in one batch per calendar
+     *
+     * @param projects
+     */
+    public static void calculateNumWorkingDays(Collection<Project> projects) {
+        Map<WorkingCalendar, List<Project>> batches = projects.stream()
+                .filter(p -> p.numWorkingDays < 0 && p.startDate != null && p.endDate != null)
+                .collect(Collectors.groupingBy(Project::getCalendar));
+
+        batches.forEach((calendar, batch) -> {
+            long[] firstDays = new long[batch.size()];
+            long[] lastDays = new long[batch.size()];
+            int[] counts = new int[batch.size()];
+            for (int i = 0; i < firstDays.length; i++) {
+                firstDays[i] = batch.get(i).startDate.toEpochDay();
+                lastDays[i] = batch.get(i).endDate.toEpochDay();
+            }
+            calendar.getNumWorkingDays(firstDays, lastDays, counts);
+            for (int i = 0; i < counts.length; i++) {
+                batch.get(i).numWorkingDays = counts[i];
+            }
+        });
+    }
+
+    /**
+     * indexes projects by their code, to resolve the project references of an import in O(1)
+     *
+     * @param projects
+     * @return
+     */
+    public static Map<String, Project> indexByCode(Collection<Project> projects) {
+        Map<String, Project> projectsByCode = new HashMap<>(2 * projects.size());
+        for (Project project : projects) {
+            projectsByCode.putIfAbsent(project.code, project);
+        }
+        return projectsByCode;
+    }
+
+    public static Project importReferenceFromXML(XMLParser xmlParser, Map<String, Project> projectsByCode) throws XMLStreamException {
         if (xmlParser.nextBeginTag("project")) {
             String code = xmlParser.getAttributeValue(null, "code");
-            Project project = projects.stream()
-                    .filter(p -> p.code.equals(code))
-                    .findAny()
-                    .orElse(new Project(code));
+            Project project = projectsByCode.get(code);
+            if (project == null) {
+                project = new Project(code);
+            }
             xmlParser.findAndAcceptEndTag("project");
             return project;
         }
@@ -158,22 +232,41 @@ public class Project implements Comparable<Project> {
 
     /**
      * provides the number of available working days for the project,
-     * excluding weekend days
+     * excluding weekend days and any holidays of the project calendar
      *
-     * @return
+     * @return 0 for a project without start or end date
      */
     public int getNumWorkingDays() {
-        return utils.Calendar.getNumWorkingDays(this.startDate, this.endDate);
+        if (this.numWorkingDays < 0) {
+            this.numWorkingDays = (this.startDate == null || this.endDate == null ? 0 :
+                    this.calendar.getNumWorkingDays(this.startDate, this.endDate));
+        }
+        return this.numWorkingDays;
     }
 
     /**
      * provides a collection of dates that represent each of the available working days for the project,
-     * excluding weekend days
+     * excluding weekend days and any holidays of the project calendar
+     * the dates are not materialized, the returned set is a view on the project period
      *
      * @return
      */
-    public Set<LocalDate> getWorkingDays() {
-        return Calendar.getWorkingDays(this.startDate, this.endDate);
+    public WorkingDayRange getWorkingDays() {
+        return this.calendar.getWorkingDays(this.startDate, this.endDate);
+    }
+
+    /**
+     * provides the number of available working days for the project in each month of the project period,
+     * excluding weekend days and any holidays of the project calendar
+     *
+     * @return no months at all for a project without start or end date
+     */
+    public MonthlyWorkingDays getMonthlyWorkingDays() {
+        if (this.startDate == null || this.endDate == null) {
+            // a project without dates has no months
+            return new MonthlyWorkingDays(null, new int[0]);
+        }
+        return this.calendar.getMonthlyWorkingDays(this.startDate, this.endDate);
     }
 
     // make sure Projects can be printed. The format is 'title(code)'
@@ -198,9 +291,13 @@ public class Project implements Comparable<Project> {
     // Below are helper attributes and methods for sample generation
     // and XML import and export
 
+    // the same hash as Objects.hash(code, title, startDate, endDate), without a varargs array
     @Override
     public int hashCode() {
-        return Objects.hash(code, title, startDate, endDate);
+        int hash = 31 + Objects.hashCode(code);
+        hash = 31 * hash + Objects.hashCode(title);
+        hash = 31 * hash + Objects.hashCode(startDate);
+        return 31 * hash + Objects.hashCode(endDate);
     }
 
     /**
@@ -213,33 +310,137 @@ public class Project implements Comparable<Project> {
      * @param hoursPerDay
      */
     public void addCommitment(Employee employee, int hoursPerDay) {
+        mergeCommitment(employee, hoursPerDay);
+        // also register this project assignment for this employee,
+        // in case that had not been done before
+        boolean newAssignment = employee.getAssignedProjects().add(this);
+
+        if (this.listeners != null) {
+            for (ProjectListener listener : this.listeners) {
+                listener.commitmentAdded(this, employee, hoursPerDay, newAssignment);
+            }
+        }
+    }
+
+    /**
+     * adds the hoursPerDay to the commitment of the employee on the project,
+     * without registering the assignment with the employee and without notifying the listeners
+     *
+     * @param employee
+     * @param hoursPerDay
+     */
+    void mergeCommitment(Employee employee, int hoursPerDay) {
         committedHoursPerDay.merge(
                 employee, // set the employee as the key of this map entry
                 hoursPerDay, // set the hoursPerDay as the value of this map entry
                 Integer::sum // if an entry with the same key already exists then update the value of the entry
                              // by summing up the existing value with the new hoursPerDay
         );
-        // also register this project assignment for this employee,
-        // in case that had not been done before
-        employee.getAssignedProjects().add(this);
+        invalidateCaches();
+    }
+
+    /**
+     * registers the hoursPerDay as the commitment of the employee on the project,
+     * replacing any earlier commitment, without registering the assignment with the employee
+     *
+     * @param employee
+     * @param hoursPerDay
+     */
+    void putCommitment(Employee employee, int hoursPerDay) {
+        committedHoursPerDay.put(employee, hoursPerDay);
+        invalidateCaches();
+    }
+
+    /**
+     * creates a copy of the project with other dates, for a scenario of a planning system
+     * the copy has its own commitments, but it is not registered with the employees and has no listeners
+     *
+     * @param startDate
+     * @param endDate
+     * @return
+     */
+    Project copy(LocalDate startDate, LocalDate endDate) {
+        Project copy = new Project(this.code);
+        copy.title = this.title;
+        copy.calendar = this.calendar;
+        copy.startDate = startDate;
+        copy.endDate = endDate;
+        copy.committedHoursPerDay = new HashMap<>(this.committedHoursPerDay);
+        if (Objects.equals(startDate, this.startDate) && Objects.equals(endDate, this.endDate)) {
+            copy.numWorkingDays = this.numWorkingDays;
+        }
+        return copy;
+    }
+
+    /**
+     * registers a listener that will be notified of every commitment that is added to the project
+     *
+     * @param listener
+     */
+    public void addListener(ProjectListener listener) {
+        if (this.listeners == null) {
+            this.listeners = new ArrayList<>(1);
+        }
+        this.listeners.add(listener);
     }
 
     /**
      * Calculate total manpower budget for the project
      * from the committed hours per employee per working day
      * and the hourlyRate per employee
+     * the budget is calculated once and reused until the commitments change
      *
-     * @return
+     * @return 0 for a project without commitments or without start or end date
      */
     public int calculateManpowerBudget() {
-        // Turns the Map into a set of Map entries that can be used with as a stream
-        return committedHoursPerDay.entrySet() // Turn the Map into a set of map entries so it can be streamed
-            .stream()
-            .mapToInt((entry) -> // Map a single entry so it can be used to calculate
-                    entry.getKey().getHourlyWage() * // Get the employee from key of the map entry and get its hourly wage
-                    entry.getValue() *       // Get the committed hours per day from the user in the entry
-                    getNumWorkingDays()      // Get the number of available working days for this project
-            ).sum(); // Sum up all the values from the previous map of all entries in the Map
+        if (this.manpowerBudget == null) {
+            if (this.committedHoursPerDay.isEmpty() || this.startDate == null || this.endDate == null) {
+                // there are no working days to spend on, the calendar is not consulted
+                this.manpowerBudget = 0;
+            } else {
+                // the same cost is spent on every available working day of the project
+                this.manpowerBudget = calculateDailyManpowerCost() * getNumWorkingDays();
+            }
+        }
+        return this.manpowerBudget;
+    }
+
+    /**
+     * Calculate the manpower cost of a single working day of the project
+     * from the committed hours per employee per working day
+     * and the hourlyRate per employee
+     *
+     * @return
+     */
+    public int calculateDailyManpowerCost() {
+        if (this.dailyManpowerCost == null) {
+            // Turns the Map into a set of Map entries that can be used with as a stream
+            this.dailyManpowerCost = committedHoursPerDay.entrySet() // Turn the Map into a set of map entries so it can be streamed
+                .stream()
+                .mapToInt((entry) -> // Map a single entry so it can be used to calculate
+                        entry.getKey().getHourlyWage() * // Get the employee from key of the map entry and get its hourly wage
+                        entry.getValue()         // Get the committed hours per day from the user in the entry
+                ).sum(); // Sum up all the values from the previous map of all entries in the Map
+        }
+        return this.dailyManpowerCost;
+    }
+
+    /**
+     * discards the memoized calculation results that depend on the commitments
+     * must be called on every change of the commitments of the project
+     * (the dates of a project cannot be changed, so the number of working days remains valid)
+     */
+    private void invalidateCaches() {
+        this.dailyManpowerCost = null;
+        this.manpowerBudget = null;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
     }
 
     public String getCode() {
@@ -258,15 +459,28 @@ public class Project implements Comparable<Project> {
         return endDate;
     }
 
+    public WorkingCalendar getCalendar() {
+        return calendar;
+    }
+
+    /**
+     * provides the commitments of the project
+     * changes should be made via addCommitment, such that the memoized budget is kept up to date
+     *
+     * @return
+     */
     public Map<Employee, Integer> getCommittedHoursPerDay() {
         return committedHoursPerDay;
     }
 
-    public void updateReferences(Employee employee) {
-        // replace the employee key of the commitment
-        Integer hoursPerDay;
-        if ((hoursPerDay = this.getCommittedHoursPerDay().remove(employee)) != null) {
-            this.getCommittedHoursPerDay().put(employee, hoursPerDay);
-        }
+    /**
+     * provides the commitments of the project in the columnar store of a planning system
+     * a project may join several planning systems, so the store is specified by the caller
+     *
+     * @param store     the store of a planning system, see PPS.getCommitmentStore
+     * @return the commitments in order of employee number; empty if the project is not in the store
+     */
+    public CommitmentStore.CommitmentView getCommitments(CommitmentStore store) {
+        return store.getCommitments(this);
     }
 }
@@ -0,0 +1,188 @@
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * An index of projects by their active period, from start date until end date, both inclusive
+ * The projects are kept in arrays sorted by start date, with a sparse table of the position of the maximum end date
+ * of every subrange of a power of two length, which answers the latest ending project of any range in O(1)
+ * A query binary-searches the projects that start not later than the last day of the period,
+ * and splits that range at its latest ending project until the latest end lies before the first day of the period;
+ * every split either reports a project or stops, so all k projects that overlap a period are found in O(log n + k),
+ * in order of start date, without comparing the dates of all projects.
+ * Projects that are added later are kept in a small pending list, which is merged into the sorted arrays
+ * by the adding side: once it grows beyond the square root of the index size, and on every PPS.Builder.build.
+ * Queries only read the index; projects that are still pending are compared one by one, in O(p) for p pending projects
+ */
+class ProjectIntervalIndex {
+    private static final int MIN_PENDING = 64;
+    private static final Comparator<Project> BY_START_DATE =
+            Comparator.comparing(Project::getStartDate).thenComparing(Comparator.naturalOrder());
+
+    private Project[] projects = new Project[0];    // sorted by start date
+    private long[] starts = new long[0];            // the epoch day of the start date of every project
+    private long[] ends = new long[0];              // the epoch day of the end date of every project
+    private int[][] latestEnds = new int[0][];      // latestEnds[j][i] = the position of the maximum end in [i, i + 2^j)
+    private List<Project> pending = new ArrayList<>();
+
+    ProjectIntervalIndex(Collection<Project> projects) {
+        for (Project project : projects) {
+            if (project.getStartDate() != null && project.getEndDate() != null) {
+                this.pending.add(project);
+            }
+        }
+        merge();
+    }
+
+    /**
+     * adds another project to the index
+     * projects without a start or end date are not active on any day and are not indexed
+     *
+     * @param project
+     */
+    void add(Project project) {
+        if (project.getStartDate() != null && project.getEndDate() != null) {
+            this.pending.add(project);
+            if (this.pending.size() > Math.max(MIN_PENDING, (int)Math.sqrt(this.projects.length))) {
+                merge();
+            }
+        }
+    }
+
+    /**
+     * merges the pending projects into the sorted arrays and rebuilds the sparse table
+     */
+    void merge() {
+        if (this.pending.isEmpty() && this.latestEnds.length > 0) return;
+        List<Project> all = new ArrayList<>(this.projects.length + this.pending.size());
+        all.addAll(Arrays.asList(this.projects));
+        all.addAll(this.pending);
+        all.sort(BY_START_DATE);
+        this.pending.clear();
+
+        int n = all.size();
+        this.projects = all.toArray(new Project[n]);
+        this.starts = new long[n];
+        this.ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            this.starts[i] = this.projects[i].getStartDate().toEpochDay();
+            this.ends[i] = this.projects[i].getEndDate().toEpochDay();
+        }
+
+        // every row doubles the length of the subranges of the row before
+        int numRows = 32 - Integer.numberOfLeadingZeros(Math.max(n, 1));
+        this.latestEnds = new int[numRows][];
+        this.latestEnds[0] = new int[n];
+        for (int i = 0; i < n; i++) {
+            this.latestEnds[0][i] = i;
+        }
+        for (int j = 1; j < numRows; j++) {
+            int half = 1 << (j - 1);
+            int[] previous = this.latestEnds[j - 1];
+            int[] row = new int[n - 2 * half + 1];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = latest(previous[i], previous[i + half]);
+            }
+            this.latestEnds[j] = row;
+        }
+    }
+
+    private int latest(int i, int j) {
+        return (this.ends[j] > this.ends[i] ? j : i);
+    }
+
+    /**
+     * @return the position of the project with the latest end in [from, to), which must not be empty
+     */
+    private int latestEnd(int from, int to) {
+        int j = 31 - Integer.numberOfLeadingZeros(to - from);
+        return latest(this.latestEnds[j][from], this.latestEnds[j][to - (1 << j)]);
+    }
+
+    /**
+     * finds all projects that are active on the date
+     *
+     * @param date
+     * @return the projects, sorted by start date
+     */
+    List<Project> findActiveOn(LocalDate date) {
+        return findOverlapping(date, date);
+    }
+
+    /**
+     * finds all projects that are active on any day between firstDay and lastDay, both inclusive
+     *
+     * @param firstDay
+     * @param lastDay
+     * @return the projects, sorted by start date
+     */
+    List<Project> findOverlapping(LocalDate firstDay, LocalDate lastDay) {
+        long first = firstDay.toEpochDay();
+        long last = lastDay.toEpochDay();
+
+        // only the projects that start not later than the last day can overlap
+        List<Project> found = new ArrayList<>();
+        collect(upperBound(last), first, found);
+
+        if (!this.pending.isEmpty()) {
+            for (Project project : this.pending) {
+                if (project.getStartDate().toEpochDay() <= last && project.getEndDate().toEpochDay() >= first) {
+                    found.add(project);
+                }
+            }
+            found.sort(BY_START_DATE);
+        }
+        return found;
+    }
+
+    /**
+     * @param day
+     * @return the number of projects that start on or before the day
+     */
+    private int upperBound(long day) {
+        int low = 0, high = this.starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.starts[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * collects the projects before limit that end on or after the first day, in order of position
+     * a range is split at its latest ending project, which is reported between both parts if it ends in time;
+     * otherwise no project of the range ends in time and the range is dropped
+     * the ranges are kept on an explicit stack, because the splits may be very unbalanced
+     */
+    private void collect(int limit, long first, List<Project> found) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = 0;
+        stack[size++] = limit;
+        while (size > 0) {
+            int to = stack[--size];
+            int from = stack[--size];
+            if (to < 0) {
+                // a project that has been found before its right part
+                found.add(this.projects[from]);
+                continue;
+            }
+            if (from >= to) continue;
+            int latest = latestEnd(from, to);
+            if (this.ends[latest] < first) continue;
+            if (size + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            // pushed in reverse order: the left part is handled first, then the project, then the right part
+            stack[size++] = latest + 1;
+            stack[size++] = to;
+            stack[size++] = latest;
+            stack[size++] = -1;
+            stack[size++] = from;
+            stack[size++] = latest;
+        }
+    }
+}
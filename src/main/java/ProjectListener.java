@@ -0,0 +1,16 @@
+/**
+ * Receives the changes of the commitments of a project,
+ * such that aggregates over the project can be kept up to date
+ */
+public interface ProjectListener {
+
+    /**
+     * notifies that hoursPerDay have been added to the commitment of the employee on the project
+     *
+     * @param project
+     * @param employee
+     * @param hoursPerDay       the added hours, on top of any earlier commitment
+     * @param newAssignment     whether the project has been added to the assigned projects of the employee
+     */
+    void commitmentAdded(Project project, Employee employee, int hoursPerDay, boolean newAssignment);
+}
@@ -0,0 +1,129 @@
+import java.util.*;
+
+/**
+ * A compact set of projects, kept as a sorted array of project references that grows with the set
+ * An empty set shares a single empty array, and a set of n projects holds an array of about 1.5 n references,
+ * instead of a hash table and an entry object per project
+ * The projects are ordered by code, such that membership is found by binary search;
+ * the ids of the projects cannot be used, because a project may join several planning systems
+ * Distinct projects with the same code are kept side by side and told apart by equals
+ */
+class ProjectSet extends AbstractSet<Project> {
+    private static final Project[] EMPTY = new Project[0];
+
+    private Project[] projects = EMPTY;
+    private int size = 0;
+    private int modCount = 0;           // the number of changes, to detect changes during an iteration
+
+    ProjectSet() {
+    }
+
+    ProjectSet(Collection<Project> projects) {
+        addAll(projects);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * finds the project by binary search on the code and a scan of the projects with the same code
+     *
+     * @param project
+     * @return the index of the project, or -(insertion point) - 1 if the set does not contain it
+     */
+    private int indexOf(Project project) {
+        int low = 0, high = this.size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.projects[middle].compareTo(project) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (; low < this.size && this.projects[low].compareTo(project) == 0; low++) {
+            if (this.projects[low].equals(project)) return low;
+        }
+        return -low - 1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return (o instanceof Project && indexOf((Project) o) >= 0);
+    }
+
+    @Override
+    public boolean add(Project project) {
+        int index = indexOf(Objects.requireNonNull(project));
+        if (index >= 0) return false;
+
+        index = -index - 1;
+        if (this.size == this.projects.length) {
+            this.projects = Arrays.copyOf(this.projects, this.size + (this.size >> 1) + 1);
+        }
+        System.arraycopy(this.projects, index, this.projects, index + 1, this.size - index);
+        this.projects[index] = project;
+        this.size++;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Project)) return false;
+        int index = indexOf((Project) o);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(this.projects, index + 1, this.projects, index, this.size - index - 1);
+        this.projects[--this.size] = null;
+        this.modCount++;
+    }
+
+    @Override
+    public void clear() {
+        this.projects = EMPTY;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * @return the projects in order of code
+     */
+    @Override
+    public Iterator<Project> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < size;
+            }
+
+            @Override
+            public Project next() {
+                if (modCount != this.expectedModCount) throw new ConcurrentModificationException();
+                if (this.next >= size) throw new NoSuchElementException();
+                this.last = this.next++;
+                return projects[this.last];
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0) throw new IllegalStateException();
+                if (modCount != this.expectedModCount) throw new ConcurrentModificationException();
+                removeAt(this.last);
+                this.next = this.last;
+                this.last = -1;
+                this.expectedModCount = modCount;
+            }
+        };
+    }
+}
@@ -0,0 +1,173 @@
+import utils.RangeAddMaxTree;
+import utils.WorkingCalendar;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Searches for project dates that flatten the peak of the total daily manpower cost of a portfolio
+ * Projects may be moved by at most maxShift working days in either direction,
+ * keeping their number of working days and their commitments
+ * The search is a simulated annealing over the shifts of the projects
+ * The daily spends are kept in a range-add / max tree over the working days,
+ * so a move costs two range additions and the peak is read from the root, in O(log D) in total
+ * Independent chains with their own seeds can run in parallel, and the best plan of all chains is returned
+ */
+public class ResourceLevellingOptimizer {
+    // the temperature drops from the average daily cost of a project to this fraction of it
+    private static final double FINAL_TEMPERATURE_RATIO = 1e-4;
+
+    private final WorkingCalendar calendar;
+    private final int maxShift;
+    private final Project[] projects;       // the projects with a daily manpower cost
+    private final long[] dailyCosts;
+    private final int[] firstWorkingDays;   // the ordinal of the current first working day of each project
+    private final int[] numWorkingDays;
+    private final LocalDate origin;         // the first working day from the origin has ordinal 0
+    private final RangeAddMaxTree spends;   // the total daily spend of each working day with the current dates
+
+    /**
+     * the best shifts that an annealing chain has found
+     */
+    private static class Chain {
+        final int[] shifts;     // the shift in working days of each project
+        final long peak;        // the peak daily spend with those shifts
+
+        Chain(int[] shifts, long peak) {
+            this.shifts = shifts;
+            this.peak = peak;
+        }
+    }
+
+    /**
+     * @param projects
+     * @param calendar      the calendar to count the working days of the shifts
+     * @param maxShift      the maximum number of working days that a project may be moved
+     */
+    public ResourceLevellingOptimizer(Collection<Project> projects, WorkingCalendar calendar, int maxShift) {
+        this.calendar = calendar;
+        this.maxShift = Math.max(0, maxShift);
+
+        // only projects that spend anything on working days can change the peak
+        List<Project> movable = new ArrayList<>();
+        for (Project project : projects) {
+            if (project.getStartDate() != null && project.getEndDate() != null &&
+                    project.calculateDailyManpowerCost() > 0 &&
+                    calendar.getNumWorkingDays(project.getStartDate(), project.getEndDate()) > 0) {
+                movable.add(project);
+            }
+        }
+        this.projects = movable.toArray(new Project[0]);
+        this.dailyCosts = new long[this.projects.length];
+        this.firstWorkingDays = new int[this.projects.length];
+        this.numWorkingDays = new int[this.projects.length];
+
+        // choose the origin such that no project can be moved before it
+        long firstStart = movable.stream()
+                .mapToLong(p -> calendar.firstWorkingDayFrom(p.getStartDate()).toEpochDay())
+                .min().orElse(0L);
+        long originDay = firstStart;
+        for (long back = 1; calendar.getNumWorkingDays(originDay, firstStart - 1) < this.maxShift; back *= 2) {
+            originDay = firstStart - back;
+        }
+        this.origin = LocalDate.ofEpochDay(originDay);
+
+        int numOrdinals = 0;
+        for (int i = 0; i < this.projects.length; i++) {
+            Project project = this.projects[i];
+            this.dailyCosts[i] = project.calculateDailyManpowerCost();
+            this.firstWorkingDays[i] = calendar.getNumWorkingDays(this.origin,
+                    calendar.firstWorkingDayFrom(project.getStartDate())) - 1;
+            this.numWorkingDays[i] = calendar.getNumWorkingDays(project.getStartDate(), project.getEndDate());
+            numOrdinals = Math.max(numOrdinals, this.firstWorkingDays[i] + this.numWorkingDays[i] + this.maxShift);
+        }
+        this.spends = new RangeAddMaxTree(numOrdinals);
+        for (int i = 0; i < this.projects.length; i++) {
+            this.spends.add(this.firstWorkingDays[i], this.firstWorkingDays[i] + this.numWorkingDays[i] - 1,
+                    this.dailyCosts[i]);
+        }
+    }
+
+    /**
+     * @return the highest total daily spend of any working day with the current dates
+     */
+    public long getPeakDailySpend() {
+        return Math.max(0, this.spends.getMax());
+    }
+
+    /**
+     * runs independent annealing chains and proposes the dates of the best chain
+     * the outcome only depends on the seed, the number of chains and the number of iterations
+     *
+     * @param numChains
+     * @param numIterations     the number of moves that each chain tries
+     * @param seed              the seed of the first chain, the other chains use the next seeds
+     * @param parallel          whether the chains run in parallel, in the fork/join pool of the calling task
+     * @return the dates of the moved projects and the peak daily spend before and after
+     */
+    public LevellingPlan optimize(int numChains, int numIterations, long seed, boolean parallel) {
+        IntStream chains = IntStream.range(0, Math.max(1, numChains));
+        Chain best = (parallel ? chains.parallel() : chains)
+                .mapToObj(chain -> anneal(numIterations, seed + chain)) // Run every chain with its own seed
+                .reduce((a, b) -> (b.peak < a.peak ? b : a)) // Keep the first of the best chains
+                .orElseThrow();
+
+        Map<Project, LocalDate> startDates = new LinkedHashMap<>();
+        Map<Project, LocalDate> endDates = new LinkedHashMap<>();
+        for (int i = 0; i < this.projects.length; i++) {
+            if (best.shifts[i] != 0) {
+                int first = this.firstWorkingDays[i] + best.shifts[i];
+                startDates.put(this.projects[i], this.calendar.getLastWorkingDay(this.origin, first + 1));
+                endDates.put(this.projects[i], this.calendar.getLastWorkingDay(this.origin, first + this.numWorkingDays[i]));
+            }
+        }
+        return new LevellingPlan(startDates, endDates, getPeakDailySpend(), best.peak);
+    }
+
+    /**
+     * runs a single annealing chain
+     *
+     * @param numIterations
+     * @param seed
+     * @return the best shifts of the chain
+     */
+    private Chain anneal(int numIterations, long seed) {
+        Random randomizer = new Random(seed);
+        RangeAddMaxTree spends = new RangeAddMaxTree(this.spends);
+        int numProjects = this.projects.length;
+        int[] shifts = new int[numProjects];
+        int[] bestShifts = new int[numProjects];
+        long peak = spends.getMax();
+        long bestPeak = peak;
+
+        double temperature = Arrays.stream(this.dailyCosts).average().orElse(1.0);
+        double cooling = Math.pow(FINAL_TEMPERATURE_RATIO, 1.0 / Math.max(1, numIterations));
+        for (int iteration = 0; iteration < numIterations && numProjects > 0 && this.maxShift > 0;
+             iteration++, temperature *= cooling) {
+            int p = randomizer.nextInt(numProjects);
+            int shift = randomizer.nextInt(2 * this.maxShift + 1) - this.maxShift;
+            if (shift == shifts[p]) continue;
+
+            // move the spend of the project to its new working days
+            int from = this.firstWorkingDays[p] + shifts[p];
+            int newFrom = this.firstWorkingDays[p] + shift;
+            spends.add(from, from + this.numWorkingDays[p] - 1, -this.dailyCosts[p]);
+            spends.add(newFrom, newFrom + this.numWorkingDays[p] - 1, this.dailyCosts[p]);
+            long newPeak = spends.getMax();
+
+            if (newPeak <= peak || randomizer.nextDouble() < Math.exp((peak - newPeak) / temperature)) {
+                shifts[p] = shift;
+                peak = newPeak;
+                if (peak < bestPeak) {
+                    bestPeak = peak;
+                    System.arraycopy(shifts, 0, bestShifts, 0, numProjects);
+                }
+            } else {
+                spends.add(newFrom, newFrom + this.numWorkingDays[p] - 1, -this.dailyCosts[p]);
+                spends.add(from, from + this.numWorkingDays[p] - 1, this.dailyCosts[p]);
+            }
+        }
+        return new Chain(bestShifts, Math.max(0, bestPeak));
+    }
+}
@@ -0,0 +1,265 @@
+import utils.IntIntMap;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * A what-if scenario of a planning system, in which projects can be moved,
+ * wages can be changed and commitments can be added without changing the planning system itself
+ * Only the touched projects and employees are copied; all others are shared with the planning system
+ * The statistics of the scenario are the aggregates of the planning system plus the changes of the touched nodes,
+ * so every operation only recalculates the budgets of the projects that it affects
+ * Projects and employees are identified by their original objects in the planning system,
+ * and the changes are kept by the ids of those objects in the planning system
+ * Objects from outside the planning system get negative keys of the scenario itself,
+ * such that the ids of the planning system are only read and never assigned by a scenario
+ */
+public class Scenario {
+    private static final int NO_KEY = Integer.MIN_VALUE;
+
+    private final PPS baseline;
+    private final IdRegistry ids;                                       // the ids of the baseline, read only
+    private final Map<Object, Integer> outsideKeys = new IdentityHashMap<>(); // the keys of objects outside the baseline
+    private final PortfolioAggregates aggregates;                       // the aggregates of the baseline
+    private final IntIntMap projectSlots = new IntIntMap();             // the slot of the copy per project key
+    private final List<Project> projects = new ArrayList<>();           // the copies of the touched projects
+    private final IntIntMap employeeSlots = new IntIntMap();            // the slot of the copy per employee key
+    private final List<Employee> employees = new ArrayList<>();         // the copies of the touched employees
+    private final IntIntMap assignmentSlots = new IntIntMap();          // the slot of the new assignments per employee key
+    private final List<List<Project>> newAssignments = new ArrayList<>(); // assignments by new commitments
+    private final IntIntMap dailyCosts = new IntIntMap();               // the daily costs per key of the touched projects
+
+    // the changes of the aggregates relative to the baseline
+    private int totalManpowerBudgetChange = 0;
+    private long hourlyWageSumChange = 0;
+    private IntIntMap managedBudgetChanges = new IntIntMap();           // per employee key of the managers
+
+    Scenario(PPS baseline) {
+        this.baseline = baseline;
+        this.ids = baseline.getIds();
+        this.aggregates = baseline.getAggregates();
+    }
+
+    /**
+     * @param project
+     * @return the id of the project in the planning system, or the key of the scenario for another project
+     */
+    private int keyOf(Project project) {
+        int id = this.ids.findId(project);
+        return (id >= 0 ? id : outsideKeyOf(project));
+    }
+
+    /**
+     * @param employee
+     * @return the id of the employee in the planning system, or the key of the scenario for another employee
+     */
+    private int keyOf(Employee employee) {
+        int id = this.ids.findId(employee);
+        return (id >= 0 ? id : outsideKeyOf(employee));
+    }
+
+    private int outsideKeyOf(Object object) {
+        return this.outsideKeys.computeIfAbsent(object, o -> -1 - this.outsideKeys.size());
+    }
+
+    /**
+     * @return the key of the object, or NO_KEY if the scenario has not touched an object outside the planning system
+     */
+    private int findKey(int id, Object object) {
+        return (id >= 0 ? id : this.outsideKeys.getOrDefault(object, NO_KEY));
+    }
+
+    /**
+     * @param project   a project of the planning system
+     * @return the project as it is in the scenario
+     */
+    public Project getProject(Project project) {
+        int slot = this.projectSlots.getOrDefault(findKey(this.ids.findId(project), project), -1);
+        return (slot < 0 ? project : this.projects.get(slot));
+    }
+
+    /**
+     * @param employee  an employee of the planning system
+     * @return the employee as it is in the scenario
+     */
+    public Employee getEmployee(Employee employee) {
+        int slot = this.employeeSlots.getOrDefault(findKey(this.ids.findId(employee), employee), -1);
+        return (slot < 0 ? employee : this.employees.get(slot));
+    }
+
+    private void putProject(Project project, Project copy) {
+        int key = keyOf(project);
+        int slot = this.projectSlots.getOrDefault(key, -1);
+        if (slot < 0) {
+            this.projectSlots.put(key, this.projects.size());
+            this.projects.add(copy);
+        } else {
+            this.projects.set(slot, copy);
+        }
+    }
+
+    /**
+     * moves a project to another start date, keeping its number of working days
+     *
+     * @param project       a project of the planning system
+     * @param startDate     the new start date, or the first working day after it
+     * @return this scenario, to chain the changes
+     */
+    public Scenario moveProject(Project project, LocalDate startDate) {
+        Project current = getProject(project);
+        LocalDate firstDay = current.getCalendar().firstWorkingDayFrom(startDate);
+        LocalDate lastDay = current.getCalendar().getLastWorkingDay(firstDay, current.getNumWorkingDays());
+        putProject(project, current.copy(firstDay, lastDay));
+        update(project);
+        return this;
+    }
+
+    /**
+     * changes the hourly wage of an employee
+     * this changes the budgets of all projects that the employee is committed to
+     *
+     * @param employee      an employee of the planning system
+     * @param hourlyWage
+     * @return this scenario, to chain the changes
+     */
+    public Scenario changeHourlyWage(Employee employee, int hourlyWage) {
+        if (this.baseline.getEmployees().contains(employee)) {
+            this.hourlyWageSumChange += hourlyWage - getEmployee(employee).getHourlyWage();
+        }
+        int key = keyOf(employee);
+        int slot = this.employeeSlots.getOrDefault(key, -1);
+        if (slot < 0) {
+            this.employeeSlots.put(key, this.employees.size());
+            this.employees.add(employee.withHourlyWage(hourlyWage));
+        } else {
+            this.employees.set(slot, employee.withHourlyWage(hourlyWage));
+        }
+
+        for (Project project : employee.getAssignedProjects()) {
+            if (getProject(project).getCommittedHoursPerDay().containsKey(employee)) {
+                update(project);
+            }
+        }
+        int assignmentSlot = this.assignmentSlots.getOrDefault(key, -1);
+        if (assignmentSlot >= 0) {
+            for (Project project : this.newAssignments.get(assignmentSlot)) {
+                update(project);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * adds hours per day to the commitment of an employee on a project
+     *
+     * @param project       a project of the planning system
+     * @param employee      an employee of the planning system
+     * @param hoursPerDay
+     * @return this scenario, to chain the changes
+     */
+    public Scenario addCommitment(Project project, Employee employee, int hoursPerDay) {
+        Project current = getProject(project);
+        if (current == project) {
+            current = project.copy(project.getStartDate(), project.getEndDate());
+            putProject(project, current);
+        }
+        boolean newCommitment = !current.getCommittedHoursPerDay().containsKey(employee);
+        current.mergeCommitment(employee, hoursPerDay);
+        if (newCommitment && !employee.getAssignedProjects().contains(project)) {
+            int key = keyOf(employee);
+            int slot = this.assignmentSlots.getOrDefault(key, -1);
+            if (slot < 0) {
+                slot = this.newAssignments.size();
+                this.assignmentSlots.put(key, slot);
+                this.newAssignments.add(new ArrayList<>());
+            }
+            this.newAssignments.get(slot).add(project);
+        }
+        update(project);
+        return this;
+    }
+
+    /**
+     * recalculates the budget of a touched project and passes the change on to the aggregates
+     *
+     * @param project   a project of the planning system
+     */
+    private void update(Project project) {
+        Project current = getProject(project);
+        int dailyCost = 0;
+        for (Map.Entry<Employee, Integer> commitment : current.getCommittedHoursPerDay().entrySet()) {
+            dailyCost += getEmployee(commitment.getKey()).getHourlyWage() * commitment.getValue();
+        }
+        int budgetChange = dailyCost * current.getNumWorkingDays() - calculateManpowerBudget(project);
+        this.dailyCosts.put(keyOf(project), dailyCost);
+
+        if (this.aggregates.isInPortfolio(project)) {
+            this.totalManpowerBudgetChange += budgetChange;
+        }
+        for (Employee manager : this.aggregates.getManagers(project)) {
+            this.managedBudgetChanges.merge(keyOf(manager), budgetChange);
+        }
+    }
+
+    /**
+     * @param project   a project of the planning system
+     * @return the manpower budget of the project in the scenario
+     */
+    public int calculateManpowerBudget(Project project) {
+        int key = findKey(this.ids.findId(project), project);
+        return (!this.dailyCosts.containsKey(key) ? project.calculateManpowerBudget() :
+                this.dailyCosts.get(key) * getProject(project).getNumWorkingDays());
+    }
+
+    public int calculateTotalManpowerBudget() {
+        return this.aggregates.getTotalManpowerBudget() + this.totalManpowerBudgetChange;
+    }
+
+    public double calculateAverageHourlyWage() {
+        int numEmployees = this.baseline.getEmployees().size();
+        return (numEmployees == 0 ? 0.0 :
+                this.aggregates.getAverageHourlyWage() + (double) this.hourlyWageSumChange / numEmployees);
+    }
+
+    /**
+     * @param manager   an employee of the planning system
+     * @return the total budget of all projects managed by the employee in the scenario
+     */
+    public int calculateManagedBudget(Employee manager) {
+        return this.aggregates.getManagedBudget(manager) +
+                this.managedBudgetChanges.get(findKey(this.ids.findId(manager), manager));
+    }
+
+    /**
+     * calculates the monthly spends of the scenario
+     * from the spends of the planning system, corrected for the touched projects only
+     *
+     * @return
+     */
+    public MonthlySpendReport calculateMonthlySpendReport() {
+        MonthlySpendReport report = this.baseline.calculateMonthlySpendReport();
+        this.dailyCosts.forEach((key, dailyCost) -> {
+            // projects outside the planning system are not in its portfolio
+            if (key < 0) return;
+            Project project = this.ids.getProject(key);
+            if (this.aggregates.isInPortfolio(project)) {
+                report.add(project, -project.calculateDailyManpowerCost());
+                report.add(getProject(project), dailyCost);
+            }
+        });
+        return report;
+    }
+
+    /**
+     * @return the number of projects and employees that have been copied for the scenario
+     */
+    public int getNumCopies() {
+        return this.projects.size() + this.employees.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Scenario of " + this.baseline.getName() + "{" + this.projects.size() + " projects and " +
+                this.employees.size() + " employees changed}";
+    }
+}
@@ -0,0 +1,138 @@
+import utils.WorkingCalendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The daily manpower spend across all projects of a portfolio
+ * Every project adds its daily cost on its start date and removes it after its end date
+ * in a difference array over the epoch days of the portfolio period, one array per calendar of the projects.
+ * A single prefix sum then provides the spend of every day, counted on the working days of each calendar,
+ * and a second one the cumulative spend, such that the spend of any day, week, month or quarter is found in O(1)
+ * Building the series takes O(P + C * D) for P projects with C different calendars over a period of D days
+ */
+public class SpendTimeSeries {
+    private final long firstDay;            // epoch day of index 0
+    private final long[] dailySpends;       // the spend of every day of the period
+    private final long[] cumulativeSpends;  // cumulativeSpends[i] = total spend of the days before index i
+
+    /**
+     * builds the series of all projects, spending on the working days of the calendar of each project
+     * the series of a portfolio without projects covers no days at all
+     *
+     * @param projects
+     */
+    public SpendTimeSeries(Collection<Project> projects) {
+        long firstDay = Long.MAX_VALUE, lastDay = Long.MIN_VALUE;
+        for (Project project : projects) {
+            // projects without dates, like the placeholders of unknown references, have no days
+            if (project.getStartDate() == null || project.getEndDate() == null) continue;
+            firstDay = Math.min(firstDay, project.getStartDate().toEpochDay());
+            lastDay = Math.max(lastDay, project.getEndDate().toEpochDay());
+        }
+        if (firstDay > lastDay) {
+            firstDay = 0;
+            lastDay = -1;
+        }
+        this.firstDay = firstDay;
+        int numDays = (int)(lastDay - firstDay + 1);
+
+        // register the cost events of all projects, by the calendar of the project
+        Map<WorkingCalendar, long[]> differencesByCalendar = new LinkedHashMap<>();
+        for (Project project : projects) {
+            int dailyCost = project.calculateDailyManpowerCost();
+            if (dailyCost == 0 || project.getStartDate() == null || project.getEndDate() == null ||
+                    project.getStartDate().isAfter(project.getEndDate())) continue;
+            long[] differences = differencesByCalendar.computeIfAbsent(project.getCalendar(), c -> new long[numDays + 1]);
+            differences[(int)(project.getStartDate().toEpochDay() - firstDay)] += dailyCost;
+            differences[(int)(project.getEndDate().toEpochDay() - firstDay) + 1] -= dailyCost;
+        }
+
+        // accumulate the events into daily spends, which only occur on the working days of each calendar
+        this.dailySpends = new long[numDays];
+        this.cumulativeSpends = new long[numDays + 1];
+        for (Map.Entry<WorkingCalendar, long[]> entry : differencesByCalendar.entrySet()) {
+            WorkingCalendar calendar = entry.getKey();
+            long[] differences = entry.getValue();
+            long dailyCost = 0;
+            for (int i = 0; i < numDays; i++) {
+                dailyCost += differences[i];
+                if (calendar.isWorkingDay(firstDay + i)) this.dailySpends[i] += dailyCost;
+            }
+        }
+        for (int i = 0; i < numDays; i++) {
+            this.cumulativeSpends[i + 1] = this.cumulativeSpends[i] + this.dailySpends[i];
+        }
+    }
+
+    /**
+     * @return the first day of the series, or null if the series covers no days
+     */
+    public LocalDate getFirstDay() {
+        return (this.dailySpends.length == 0 ? null : LocalDate.ofEpochDay(this.firstDay));
+    }
+
+    /**
+     * @return the last day of the series, or null if the series covers no days
+     */
+    public LocalDate getLastDay() {
+        return (this.dailySpends.length == 0 ? null : LocalDate.ofEpochDay(this.firstDay + this.dailySpends.length - 1));
+    }
+
+    /**
+     * @param date
+     * @return the spend on the date, 0 outside the period of the series
+     */
+    public long getDailySpend(LocalDate date) {
+        long index = date.toEpochDay() - this.firstDay;
+        return (index >= 0 && index < this.dailySpends.length ? this.dailySpends[(int)index] : 0);
+    }
+
+    /**
+     * calculates the total spend between firstDay and lastDay, both inclusive
+     *
+     * @param firstDay
+     * @param lastDay
+     * @return
+     */
+    public long getSpend(LocalDate firstDay, LocalDate lastDay) {
+        long from = Math.max(0, firstDay.toEpochDay() - this.firstDay);
+        long to = Math.min(this.dailySpends.length, lastDay.toEpochDay() - this.firstDay + 1);
+        return (from < to ? this.cumulativeSpends[(int)to] - this.cumulativeSpends[(int)from] : 0);
+    }
+
+    /**
+     * @param weekBasedYear
+     * @param week  the ISO week number within the week based year
+     * @return the total spend from monday until sunday of the ISO week
+     */
+    public long getWeeklySpend(int weekBasedYear, int week) {
+        LocalDate monday = LocalDate.of(weekBasedYear, 1, 4)
+                .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, week)
+                .with(DayOfWeek.MONDAY);
+        return getSpend(monday, monday.plusDays(6));
+    }
+
+    public long getMonthlySpend(YearMonth month) {
+        return getSpend(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * @param year
+     * @param quarter   1 - 4
+     * @return the total spend of the quarter
+     */
+    public long getQuarterlySpend(int year, int quarter) {
+        YearMonth firstMonth = YearMonth.of(year, 3 * quarter - 2);
+        return getSpend(firstMonth.atDay(1), firstMonth.plusMonths(2).atEndOfMonth());
+    }
+
+    public long getTotalSpend() {
+        return this.cumulativeSpends[this.dailySpends.length];
+    }
+}
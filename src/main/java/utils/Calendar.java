@@ -2,12 +2,18 @@ package utils;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class Calendar {
     public static final int WORKING_HOURS_PER_DAY = 8;
 
+    // the epoch day 1970-01-01 was a thursday; shifting epoch days by this offset
+    // makes every monday a multiple of 7
+    private static final long EPOCH_DAY_MONDAY_OFFSET = 3;
+
+    // the number of periods per task of a parallel batch calculation
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
+
     /**
      * calculate the number of working days (mondays - fridays)
      * between firstDay and the lastDay, both inclusive
@@ -16,53 +22,97 @@ public class Calendar {
      * @return
      */
     public static int getNumWorkingDays(LocalDate firstDay, LocalDate lastDay) {
-        if (firstDay.isAfter(lastDay)) {
-            return 0;
-        }
+        return getNumWorkingDays(firstDay.toEpochDay(), lastDay.toEpochDay());
+    }
 
-        // count the calendar days between the dates, inclusive
-        int calendarDays =
-            lastDay.getDayOfYear() - firstDay.getDayOfYear() + 1;
-        for (int year = firstDay.getYear(); year < lastDay.getYear(); year++) {
-            calendarDays += LocalDate.ofYearDay(year,1).lengthOfYear();
-        }
+    /**
+     * calculate the number of working days (mondays - fridays)
+     * between the epoch days firstDay and lastDay, both inclusive
+     * the count is computed in constant time without any loops or allocations
+     * @param firstDay  as provided by LocalDate.toEpochDay()
+     * @param lastDay   as provided by LocalDate.toEpochDay()
+     * @return          0 if firstDay is after lastDay
+     */
+    public static int getNumWorkingDays(long firstDay, long lastDay) {
+        return (int)Math.max(0L,
+                numWorkingDaysBefore(lastDay + 1) - numWorkingDaysBefore(firstDay));
+    }
 
-        // calculate the working days (removing weekend days)
-        int workingDays = 5 * (calendarDays/7);
-        int extraDays = calendarDays % 7;
+    /**
+     * calculate the number of working days (mondays - fridays) of a batch of periods
+     * counts[i] will be the number of working days between firstDays[i] and lastDays[i], both inclusive
+     * @param firstDays epoch days as provided by LocalDate.toEpochDay()
+     * @param lastDays  epoch days as provided by LocalDate.toEpochDay()
+     * @param counts    receives the results; at least as long as firstDays
+     */
+    public static void getNumWorkingDays(long[] firstDays, long[] lastDays, int[] counts) {
+        getNumWorkingDays(firstDays, lastDays, counts, 0, firstDays.length);
+    }
+
+    /**
+     * calculate the number of working days (mondays - fridays) of a batch of periods
+     * in parallel chunks of the batch on the common fork/join pool
+     * @param firstDays epoch days as provided by LocalDate.toEpochDay()
+     * @param lastDays  epoch days as provided by LocalDate.toEpochDay()
+     * @param counts    receives the results; at least as long as firstDays
+     */
+    public static void getNumWorkingDaysParallel(long[] firstDays, long[] lastDays, int[] counts) {
+        int numChunks = (firstDays.length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        IntStream.range(0, numChunks).parallel().forEach(chunk ->
+                getNumWorkingDays(firstDays, lastDays, counts,
+                        chunk * PARALLEL_CHUNK_SIZE, Math.min(firstDays.length, (chunk + 1) * PARALLEL_CHUNK_SIZE)));
+    }
 
-        // add the workdays of the partial week
-        int firstWeekDay = firstDay.getDayOfWeek().getValue();
-        for (int dayNr = 0; dayNr < extraDays; dayNr++) {
-            // exclude the saturday and sunday
-            if (firstWeekDay+dayNr != DayOfWeek.SATURDAY.getValue() &&
-                    firstWeekDay+dayNr != DayOfWeek.SUNDAY.getValue() &&
-                    firstWeekDay+dayNr != DayOfWeek.SATURDAY.getValue()+7 &&
-                    firstWeekDay+dayNr != DayOfWeek.SUNDAY.getValue()+7) {
-                workingDays++;
-            }
+    private static void getNumWorkingDays(long[] firstDays, long[] lastDays, int[] counts, int from, int to) {
+        // a plain counted loop over the arrays without calls that cannot be inlined
+        for (int i = from; i < to; i++) {
+            long first = firstDays[i] + EPOCH_DAY_MONDAY_OFFSET;
+            long next = lastDays[i] + 1 + EPOCH_DAY_MONDAY_OFFSET;
+            long count = 5 * (Math.floorDiv(next, 7) - Math.floorDiv(first, 7)) +
+                    Math.min(Math.floorMod(next, 7), 5) - Math.min(Math.floorMod(first, 7), 5);
+            counts[i] = (int)Math.max(0L, count);
         }
+    }
 
-        return workingDays;
+    /**
+     * counts the working days from the monday of 1969-12-29 up to (not including) the given epoch day
+     * the result is negative for epoch days before that monday,
+     * which keeps the difference of two counts correct across the whole epoch day range
+     * @param epochDay
+     * @return
+     */
+    private static long numWorkingDaysBefore(long epochDay) {
+        long day = epochDay + EPOCH_DAY_MONDAY_OFFSET;
+        // every full week contributes 5 working days, a partial week at most 5
+        return 5 * Math.floorDiv(day, 7) + Math.min(Math.floorMod(day, 7), 5);
     }
 
     /**
      * Calculate the set of dates representing all working days (mondays - fridays)
      * between firstDay and lastDay, both inclusive
+     * the set is a lazy view on the range; dates are only created while iterating
      * @param firstDay
      * @param lastDay
      * @return
      */
-    public static Set<LocalDate> getWorkingDays(LocalDate firstDay, LocalDate lastDay) {
+    public static WorkingDayRange getWorkingDays(LocalDate firstDay, LocalDate lastDay) {
+        return WorkingCalendar.STANDARD.getWorkingDays(firstDay, lastDay);
+    }
+
+    /**
+     * Calculate the number of working days (mondays - fridays) of each month
+     * that overlaps with the period between firstDay and lastDay, both inclusive
+     * the counts are calculated from the month boundaries, without enumerating the dates
+     * @param firstDay
+     * @param lastDay
+     * @return  the counts per month, from the month of firstDay up to the month of lastDay
+     */
+    public static MonthlyWorkingDays getMonthlyWorkingDays(LocalDate firstDay, LocalDate lastDay) {
+        return WorkingCalendar.STANDARD.getMonthlyWorkingDays(firstDay, lastDay);
+    }
 
-        if (firstDay.isAfter(lastDay)) {
-            return Set.of();
-        }
-        return firstDay.datesUntil(lastDay.plusDays(1))
-                .filter(d ->
-                        d.getDayOfWeek().compareTo(DayOfWeek.MONDAY) >= 0 &&
-                        d.getDayOfWeek().compareTo(DayOfWeek.FRIDAY) <= 0)
-                .collect(Collectors.toSet());
+    public static boolean isWorkingDay(LocalDate date) {
+        return date.getDayOfWeek().compareTo(DayOfWeek.FRIDAY) <= 0;
     }
 
     public static LocalDate firstWorkingDayFrom(LocalDate date) {
@@ -0,0 +1,196 @@
+package utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A working calendar with a custom work week, public holidays and company closure days
+ * The non-working days are indexed by a prefix-sum array over the epoch days
+ * between the first and the last registered holiday or closure day.
+ * Outside that span only the work week applies, which is counted in closed form.
+ * Hence getNumWorkingDays is O(1), firstWorkingDayFrom and lastWorkingDayUntil are O(log n)
+ */
+public class HolidayCalendar implements WorkingCalendar {
+    // shifts epoch days such that every monday is a multiple of 7
+    private static final long EPOCH_DAY_MONDAY_OFFSET = 3;
+
+    private final int workingHoursPerDay;
+    private final Set<DayOfWeek> workWeek;
+    private final int[] weekPrefix;         // weekPrefix[i] = number of working week days before day i of the week (monday = 0)
+    private final long spanFirstDay;        // epoch day of index 0 in the prefix-sum array
+    private final int[] spanPrefix;         // spanPrefix[i] = number of working days in [spanFirstDay, spanFirstDay + i)
+
+    private HolidayCalendar(Builder builder) {
+        this.workingHoursPerDay = builder.workingHoursPerDay;
+        this.workWeek = EnumSet.copyOf(builder.workWeek);
+        this.weekPrefix = new int[8];
+        for (int day = 0; day < 7; day++) {
+            this.weekPrefix[day + 1] = this.weekPrefix[day] +
+                    (this.workWeek.contains(DayOfWeek.of(day + 1)) ? 1 : 0);
+        }
+
+        // mark all closed days of the span and accumulate the working days
+        long firstDay = Long.MAX_VALUE, lastDay = Long.MIN_VALUE;
+        for (long[] closure : builder.closures) {
+            firstDay = Math.min(firstDay, closure[0]);
+            lastDay = Math.max(lastDay, closure[1]);
+        }
+        if (firstDay > lastDay) {
+            firstDay = lastDay = 0;
+        }
+        this.spanFirstDay = firstDay;
+        boolean[] closed = new boolean[(int)(lastDay - firstDay + 1)];
+        for (long[] closure : builder.closures) {
+            for (long day = closure[0]; day <= closure[1]; day++) {
+                closed[(int)(day - firstDay)] = true;
+            }
+        }
+        this.spanPrefix = new int[closed.length + 1];
+        for (int i = 0; i < closed.length; i++) {
+            this.spanPrefix[i + 1] = this.spanPrefix[i] +
+                    (!closed[i] && isWorkWeekDay(firstDay + i) ? 1 : 0);
+        }
+    }
+
+    private boolean isWorkWeekDay(long epochDay) {
+        int dayOfWeek = (int)Math.floorMod(epochDay + EPOCH_DAY_MONDAY_OFFSET, 7L);
+        return this.weekPrefix[dayOfWeek + 1] > this.weekPrefix[dayOfWeek];
+    }
+
+    /**
+     * counts the working days of the work week, without any holidays, before the given epoch day
+     * relative to the monday of 1969-12-29
+     */
+    private long numWorkWeekDaysBefore(long epochDay) {
+        long day = epochDay + EPOCH_DAY_MONDAY_OFFSET;
+        return this.weekPrefix[7] * Math.floorDiv(day, 7) + this.weekPrefix[(int)Math.floorMod(day, 7L)];
+    }
+
+    /**
+     * counts the working days before the given epoch day, relative to the monday of 1969-12-29
+     * the work week count is corrected by the prefix-sum of the span with holidays
+     */
+    private long numWorkingDaysBefore(long epochDay) {
+        long spanDay = Math.max(this.spanFirstDay, Math.min(epochDay, this.spanFirstDay + this.spanPrefix.length - 1));
+        return numWorkWeekDaysBefore(epochDay) - numWorkWeekDaysBefore(spanDay) +
+                numWorkWeekDaysBefore(this.spanFirstDay) + this.spanPrefix[(int)(spanDay - this.spanFirstDay)];
+    }
+
+    @Override
+    public boolean isWorkingDay(long epochDay) {
+        return numWorkingDaysBefore(epochDay + 1) > numWorkingDaysBefore(epochDay);
+    }
+
+    @Override
+    public int getNumWorkingDays(long firstDay, long lastDay) {
+        return (int)Math.max(0L, numWorkingDaysBefore(lastDay + 1) - numWorkingDaysBefore(firstDay));
+    }
+
+    @Override
+    public LocalDate firstWorkingDayFrom(LocalDate date) {
+        long day = date.toEpochDay();
+        long count = numWorkingDaysBefore(day);
+        // binary search the first day after which the count has increased
+        // beyond the span a working day is found within one week
+        long low = day, high = Math.max(day, this.spanFirstDay + this.spanPrefix.length) + 7;
+        while (low < high) {
+            long mid = low + (high - low) / 2;
+            if (numWorkingDaysBefore(mid + 1) > count) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return LocalDate.ofEpochDay(low);
+    }
+
+    @Override
+    public LocalDate lastWorkingDayUntil(LocalDate date) {
+        long day = date.toEpochDay();
+        long count = numWorkingDaysBefore(day + 1);
+        // binary search the last day before which the count is still lower
+        long low = Math.min(day, this.spanFirstDay) - 7, high = day;
+        while (low < high) {
+            long mid = low + (high - low + 1) / 2;
+            if (numWorkingDaysBefore(mid) < count) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return LocalDate.ofEpochDay(low);
+    }
+
+    @Override
+    public int getWorkingHoursPerDay() {
+        return this.workingHoursPerDay;
+    }
+
+    public Set<DayOfWeek> getWorkWeek() {
+        return this.workWeek;
+    }
+
+    @Override
+    public String toString() {
+        return "HolidayCalendar(" + this.workWeek + ", " + this.workingHoursPerDay + "h/day)";
+    }
+
+    /**
+     * A builder helper class to compose a calendar using method-chaining of builder methods
+     */
+    public static class Builder {
+        private int workingHoursPerDay = Calendar.WORKING_HOURS_PER_DAY;
+        private Set<DayOfWeek> workWeek = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+        private List<long[]> closures = new ArrayList<>();
+
+        /**
+         * Specify the days of the week that are working days, unless they are a holiday
+         * @param first
+         * @param rest
+         * @return
+         */
+        public Builder workWeek(DayOfWeek first, DayOfWeek... rest) {
+            this.workWeek = EnumSet.of(first, rest);
+            return this;
+        }
+
+        public Builder workingHoursPerDay(int hours) {
+            this.workingHoursPerDay = hours;
+            return this;
+        }
+
+        /**
+         * Register a public holiday on which no work will be done
+         * @param date
+         * @return
+         */
+        public Builder addHoliday(LocalDate date) {
+            return addClosure(date, date);
+        }
+
+        /**
+         * Register a company closure period on which no work will be done
+         * @param firstDay
+         * @param lastDay   inclusive
+         * @return
+         */
+        public Builder addClosure(LocalDate firstDay, LocalDate lastDay) {
+            if (!firstDay.isAfter(lastDay)) {
+                this.closures.add(new long[]{firstDay.toEpochDay(), lastDay.toEpochDay()});
+            }
+            return this;
+        }
+
+        /**
+         * Complete the calendar being build
+         * @return
+         */
+        public HolidayCalendar build() {
+            return new HolidayCalendar(this);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from int keys to int values, without boxing and without an entry object per mapping
+ * The mappings are kept in parallel primitive arrays with open addressing and linear probing
+ */
+public class IntIntMap {
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size = 0;
+    private int mask;                   // capacity - 1, the capacity being a power of two
+    private int shift;                  // 32 - log2(capacity), to take the high bits of the hash
+
+    /**
+     * A callback for all mappings of the map
+     */
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    public IntIntMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize  the number of mappings that can be added without resizing
+     */
+    public IntIntMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    private int homeSlotOf(int key) {
+        // spread the bits of the keys across the table with a Fibonacci hash
+        // its high bits depend on all bits of the key, so keys that only differ in their high bits are spread too
+        return (key * 0x9E3779B9) >>> this.shift;
+    }
+
+    private int slotOf(int key) {
+        int slot = homeSlotOf(key);
+        while (this.used[slot] && this.keys[slot] != key) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean containsKey(int key) {
+        return this.used[slotOf(key)];
+    }
+
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        int slot = slotOf(key);
+        return (this.used[slot] ? this.values[slot] : defaultValue);
+    }
+
+    public void put(int key, int value) {
+        int slot = slotOf(key);
+        if (!this.used[slot]) {
+            slot = insert(key);
+        }
+        this.values[slot] = value;
+    }
+
+    /**
+     * adds the value to the current value of the key, or maps the key to the value if it is absent
+     *
+     * @param key
+     * @param value
+     * @return  the new value of the key
+     */
+    public int merge(int key, int value) {
+        int slot = slotOf(key);
+        if (!this.used[slot]) {
+            slot = insert(key);
+        }
+        return (this.values[slot] += value);
+    }
+
+    private int insert(int key) {
+        if (2 * (this.size + 1) > this.keys.length) {
+            int[] oldKeys = this.keys, oldValues = this.values;
+            boolean[] oldUsed = this.used;
+            allocate(2 * oldKeys.length);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slotOf(oldKeys[i]);
+                    this.keys[slot] = oldKeys[i];
+                    this.values[slot] = oldValues[i];
+                    this.used[slot] = true;
+                }
+            }
+        }
+        int slot = slotOf(key);
+        this.keys[slot] = key;
+        this.values[slot] = 0;
+        this.used[slot] = true;
+        this.size++;
+        return slot;
+    }
+
+    /**
+     * @return the longest distance between the slot of a key and the slot that its hash points to
+     */
+    int getMaxProbeLength() {
+        int maxProbeLength = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.used[i]) {
+                maxProbeLength = Math.max(maxProbeLength, (i - homeSlotOf(this.keys[i])) & this.mask);
+            }
+        }
+        return maxProbeLength;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.used[i]) {
+                consumer.accept(this.keys[i], this.values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return all keys of the map, in ascending order
+     */
+    public int[] keys() {
+        int[] result = new int[this.size];
+        int n = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.used[i]) {
+                result[n++] = this.keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        for (int key : keys()) {
+            if (text.length() > 1) text.append(", ");
+            text.append(key).append('=').append(get(key));
+        }
+        return text.append('}').toString();
+    }
+}
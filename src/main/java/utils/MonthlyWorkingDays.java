@@ -0,0 +1,73 @@
+package utils;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The number of working days per month of a period of consecutive months
+ * The counts are kept in a primitive array, indexed from the first month of the period
+ */
+public class MonthlyWorkingDays {
+    private final YearMonth firstMonth;     // the month of index 0
+    private final int[] counts;             // the number of working days per month
+
+    public MonthlyWorkingDays(YearMonth firstMonth, int[] counts) {
+        this.firstMonth = firstMonth;
+        this.counts = counts;
+    }
+
+    /**
+     * @return the number of months in the period
+     */
+    public int size() {
+        return this.counts.length;
+    }
+
+    public YearMonth getFirstMonth() {
+        return this.firstMonth;
+    }
+
+    public YearMonth getMonth(int index) {
+        return this.firstMonth.plusMonths(index);
+    }
+
+    public int getCount(int index) {
+        return this.counts[index];
+    }
+
+    /**
+     * provides the number of working days in the specified month
+     * @param month
+     * @return  0 for months outside the period
+     */
+    public int getCount(YearMonth month) {
+        long index = this.firstMonth.until(month, ChronoUnit.MONTHS);
+        return (index >= 0 && index < this.counts.length ? this.counts[(int)index] : 0);
+    }
+
+    /**
+     * @return the total number of working days across all months
+     */
+    public int getTotal() {
+        int total = 0;
+        for (int count : this.counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public Map<YearMonth, Integer> toMap() {
+        Map<YearMonth, Integer> map = new TreeMap<>();
+        for (int i = 0; i < this.counts.length; i++) {
+            map.put(getMonth(i), this.counts[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,116 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A sequence of long values, initially 0, that supports adding a value to a range of positions
+ * and finding the maximum of a range of positions, both in O(log n)
+ * Every node of the tree keeps the maximum of its positions including the additions to the node itself,
+ * so additions are never pushed down and the maximum of all positions is available at the root
+ */
+public class RangeAddMaxTree {
+    // the value of the positions that only pad the tree to a power of two
+    private static final long PADDING = Long.MIN_VALUE / 4;
+
+    private final int size;
+    private final int leaves;           // the number of leaves, a power of two
+    private final long[] maxima;        // maxima[node] = the maximum of the positions of the node
+    private final long[] additions;     // additions[node] = the value that has been added to all positions of the node
+
+    /**
+     * @param size  the number of positions
+     */
+    public RangeAddMaxTree(int size) {
+        int leaves = 1;
+        while (leaves < size) {
+            leaves <<= 1;
+        }
+        this.size = size;
+        this.leaves = leaves;
+        this.maxima = new long[2 * leaves];
+        this.additions = new long[2 * leaves];
+        Arrays.fill(this.maxima, leaves + size, 2 * leaves, PADDING);
+        for (int node = leaves - 1; node > 0; node--) {
+            this.maxima[node] = Math.max(this.maxima[2 * node], this.maxima[2 * node + 1]);
+        }
+    }
+
+    /**
+     * @param other     the tree to copy
+     */
+    public RangeAddMaxTree(RangeAddMaxTree other) {
+        this.size = other.size;
+        this.leaves = other.leaves;
+        this.maxima = other.maxima.clone();
+        this.additions = other.additions.clone();
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * adds the value to all positions between from and to, both inclusive
+     * @param from
+     * @param to
+     * @param value
+     */
+    public void add(int from, int to, long value) {
+        if (from < 0 || to >= this.size) {
+            throw new IndexOutOfBoundsException("[" + from + ", " + to + "] of " + this.size);
+        }
+        if (from <= to) {
+            add(1, 0, this.leaves - 1, from, to, value);
+        }
+    }
+
+    private void add(int node, int nodeFrom, int nodeTo, int from, int to, long value) {
+        if (from <= nodeFrom && nodeTo <= to) {
+            this.additions[node] += value;
+            this.maxima[node] += value;
+            return;
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        if (from <= middle) add(2 * node, nodeFrom, middle, from, to, value);
+        if (to > middle) add(2 * node + 1, middle + 1, nodeTo, from, to, value);
+        this.maxima[node] = Math.max(this.maxima[2 * node], this.maxima[2 * node + 1]) + this.additions[node];
+    }
+
+    /**
+     * @return the maximum of all positions, in O(1)
+     */
+    public long getMax() {
+        return this.maxima[1];
+    }
+
+    /**
+     * @param from
+     * @param to
+     * @return the maximum of the positions between from and to, both inclusive
+     */
+    public long getMax(int from, int to) {
+        if (from < 0 || to >= this.size || from > to) {
+            throw new IndexOutOfBoundsException("[" + from + ", " + to + "] of " + this.size);
+        }
+        return getMax(1, 0, this.leaves - 1, from, to);
+    }
+
+    private long getMax(int node, int nodeFrom, int nodeTo, int from, int to) {
+        if (from <= nodeFrom && nodeTo <= to) {
+            return this.maxima[node];
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        long max = Long.MIN_VALUE;
+        if (from <= middle) max = Math.max(max, getMax(2 * node, nodeFrom, middle, from, to));
+        if (to > middle) max = Math.max(max, getMax(2 * node + 1, middle + 1, nodeTo, from, to));
+        return max + this.additions[node];
+    }
+
+    /**
+     * @param position
+     * @return the value at the position
+     */
+    public long get(int position) {
+        return getMax(position, position);
+    }
+}
@@ -0,0 +1,182 @@
+package utils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The rules that decide which dates are working days and how many hours are worked on each of them
+ * Projects and planning systems use an injected calendar instead of the static Calendar methods,
+ * so that public holidays, company closures and custom work weeks can be taken into account
+ */
+public interface WorkingCalendar {
+    // the minimum size of a batch of periods to be counted in parallel
+    int PARALLEL_BATCH_SIZE = 1 << 16;
+
+    /**
+     * the default calendar of mondays - fridays with Calendar.WORKING_HOURS_PER_DAY
+     */
+    WorkingCalendar STANDARD = new WorkingCalendar() {
+        @Override
+        public boolean isWorkingDay(long epochDay) {
+            return Calendar.isWorkingDay(LocalDate.ofEpochDay(epochDay));
+        }
+
+        @Override
+        public int getNumWorkingDays(long firstDay, long lastDay) {
+            return Calendar.getNumWorkingDays(firstDay, lastDay);
+        }
+
+        @Override
+        public void getNumWorkingDays(long[] firstDays, long[] lastDays, int[] counts) {
+            if (firstDays.length >= PARALLEL_BATCH_SIZE) {
+                Calendar.getNumWorkingDaysParallel(firstDays, lastDays, counts);
+            } else {
+                Calendar.getNumWorkingDays(firstDays, lastDays, counts);
+            }
+        }
+
+        @Override
+        public LocalDate firstWorkingDayFrom(LocalDate date) {
+            return Calendar.firstWorkingDayFrom(date);
+        }
+
+        @Override
+        public LocalDate lastWorkingDayUntil(LocalDate date) {
+            return Calendar.lastWorkingDayUntil(date);
+        }
+
+        @Override
+        public int getWorkingHoursPerDay() {
+            return Calendar.WORKING_HOURS_PER_DAY;
+        }
+
+        @Override
+        public String toString() {
+            return "Calendar(MONDAY-FRIDAY)";
+        }
+    };
+
+    /**
+     * @param epochDay  as provided by LocalDate.toEpochDay()
+     * @return whether the day is a working day
+     */
+    boolean isWorkingDay(long epochDay);
+
+    /**
+     * calculate the number of working days between the epoch days firstDay and lastDay, both inclusive
+     * @param firstDay
+     * @param lastDay
+     * @return  0 if firstDay is after lastDay
+     */
+    int getNumWorkingDays(long firstDay, long lastDay);
+
+    /**
+     * @param date
+     * @return the first working day on or after the date
+     */
+    LocalDate firstWorkingDayFrom(LocalDate date);
+
+    /**
+     * @param date
+     * @return the last working day on or before the date
+     */
+    LocalDate lastWorkingDayUntil(LocalDate date);
+
+    /**
+     * @return the number of hours that an employee can work on a working day without overtime
+     */
+    int getWorkingHoursPerDay();
+
+    /**
+     * calculate the number of working days of a batch of periods
+     * counts[i] will be the number of working days between firstDays[i] and lastDays[i], both inclusive
+     * @param firstDays epoch days as provided by LocalDate.toEpochDay()
+     * @param lastDays  epoch days as provided by LocalDate.toEpochDay()
+     * @param counts    receives the results; at least as long as firstDays
+     */
+    default void getNumWorkingDays(long[] firstDays, long[] lastDays, int[] counts) {
+        for (int i = 0; i < firstDays.length; i++) {
+            counts[i] = getNumWorkingDays(firstDays[i], lastDays[i]);
+        }
+    }
+
+    default boolean isWorkingDay(LocalDate date) {
+        return isWorkingDay(date.toEpochDay());
+    }
+
+    default int getNumWorkingDays(LocalDate firstDay, LocalDate lastDay) {
+        return getNumWorkingDays(firstDay.toEpochDay(), lastDay.toEpochDay());
+    }
+
+    /**
+     * calculate the last day of the period from firstDay that contains the specified number of working days
+     * the end is found by doubling the period and bisecting it, with O(log numWorkingDays) counts of working days
+     * @param firstDay          an epoch day as provided by LocalDate.toEpochDay()
+     * @param numWorkingDays
+     * @return  the epoch day of the last of the working days, or firstDay - 1 if numWorkingDays is not positive
+     */
+    default long getLastWorkingDay(long firstDay, int numWorkingDays) {
+        if (numWorkingDays <= 0) return firstDay - 1;
+
+        // a period of n days has at most n working days
+        long low = firstDay + numWorkingDays - 1;
+        long high = low;
+        while (getNumWorkingDays(firstDay, high) < numWorkingDays) {
+            low = high + 1;
+            high = firstDay + 2 * (high - firstDay + 1) - 1;
+        }
+        // find the first day in [low, high] that completes the working days
+        while (low < high) {
+            long middle = low + (high - low) / 2;
+            if (getNumWorkingDays(firstDay, middle) < numWorkingDays) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    default LocalDate getLastWorkingDay(LocalDate firstDay, int numWorkingDays) {
+        return LocalDate.ofEpochDay(getLastWorkingDay(firstDay.toEpochDay(), numWorkingDays));
+    }
+
+    /**
+     * Calculate the set of dates representing all working days between firstDay and lastDay, both inclusive
+     * @param firstDay
+     * @param lastDay
+     * @return  a lazy view on the range
+     */
+    default WorkingDayRange getWorkingDays(LocalDate firstDay, LocalDate lastDay) {
+        return new WorkingDayRange(firstDay, lastDay, this);
+    }
+
+    /**
+     * Calculate the number of working days of each month
+     * that overlaps with the period between firstDay and lastDay, both inclusive
+     * the counts are calculated from the month boundaries, without enumerating the dates
+     * @param firstDay
+     * @param lastDay
+     * @return  the counts per month, from the month of firstDay up to the month of lastDay
+     */
+    default MonthlyWorkingDays getMonthlyWorkingDays(LocalDate firstDay, LocalDate lastDay) {
+        YearMonth firstMonth = YearMonth.from(firstDay);
+        if (firstDay.isAfter(lastDay)) {
+            return new MonthlyWorkingDays(firstMonth, new int[0]);
+        }
+
+        int numMonths = (int)firstMonth.until(YearMonth.from(lastDay), ChronoUnit.MONTHS) + 1;
+        int[] counts = new int[numMonths];
+        long lastEpochDay = lastDay.toEpochDay();
+        long monthStart = firstDay.toEpochDay();
+        LocalDate nextMonth = firstMonth.atDay(1);
+        for (int i = 0; i < numMonths; i++) {
+            nextMonth = nextMonth.plusMonths(1);
+            long monthEnd = Math.min(nextMonth.toEpochDay() - 1, lastEpochDay);
+            counts[i] = getNumWorkingDays(monthStart, monthEnd);
+            monthStart = monthEnd + 1;
+        }
+        return new MonthlyWorkingDays(firstMonth, counts);
+    }
+}
@@ -0,0 +1,85 @@
+package utils;
+
+import java.time.LocalDate;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of all working days of a calendar between a first and last day, both inclusive
+ * The set is a view on the epoch day range only; no dates are materialized
+ * until they are requested from the iterator
+ */
+public class WorkingDayRange extends AbstractSet<LocalDate> {
+    private final long firstDay;        // epoch day of the first day of the range
+    private final long lastDay;         // epoch day of the last day of the range
+    private final int size;             // number of working days in the range
+    private final WorkingCalendar calendar;
+
+    public WorkingDayRange(LocalDate firstDay, LocalDate lastDay) {
+        this(firstDay, lastDay, WorkingCalendar.STANDARD);
+    }
+
+    public WorkingDayRange(LocalDate firstDay, LocalDate lastDay, WorkingCalendar calendar) {
+        this(firstDay.toEpochDay(), lastDay.toEpochDay(), calendar);
+    }
+
+    public WorkingDayRange(long firstDay, long lastDay, WorkingCalendar calendar) {
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.calendar = calendar;
+        this.size = calendar.getNumWorkingDays(firstDay, lastDay);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof LocalDate)) return false;
+        LocalDate date = (LocalDate) o;
+        long epochDay = date.toEpochDay();
+        return epochDay >= this.firstDay && epochDay <= this.lastDay && this.calendar.isWorkingDay(epochDay);
+    }
+
+    @Override
+    public Iterator<LocalDate> iterator() {
+        return new Iterator<>() {
+            private int remaining = size;
+            private LocalDate next = (size > 0 ? calendar.firstWorkingDayFrom(LocalDate.ofEpochDay(firstDay)) : null);
+
+            @Override
+            public boolean hasNext() {
+                return this.remaining > 0;
+            }
+
+            @Override
+            public LocalDate next() {
+                if (this.remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                LocalDate current = this.next;
+                if (--this.remaining > 0) {
+                    // skip any weekend or holidays after the current day
+                    this.next = calendar.firstWorkingDayFrom(current.plusDays(1));
+                }
+                return current;
+            }
+        };
+    }
+
+    public LocalDate getFirstDay() {
+        return LocalDate.ofEpochDay(this.firstDay);
+    }
+
+    public LocalDate getLastDay() {
+        return LocalDate.ofEpochDay(this.lastDay);
+    }
+}
@@ -2,9 +2,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.openjdk.jol.info.GraphLayout;
+import utils.WorkingCalendar;
 
 import java.time.LocalDate;
-import java.util.Set;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -50,4 +52,90 @@ class EmployeeTest {
         assertEquals(0,
                 this.employee2.calculateManagedBudget(),"managed budget");
     }
+
+    @Test
+    void T21_checkLoadTimeline() {
+        LoadTimeline timeline = LoadTimeline.of(this.employee1);
+        assertEquals(0, timeline.getLoad(LocalDate.of(2019,1,31)));
+        assertEquals(3, timeline.getLoad(LocalDate.of(2019,2,1)));
+        assertEquals(4, timeline.getLoad(LocalDate.of(2019,4,30)));
+        assertEquals(1, timeline.getLoad(LocalDate.of(2019,5,1)));
+        assertEquals(0, timeline.getLoad(LocalDate.of(2019,6,1)));
+        assertEquals(4, timeline.size());
+        assertEquals(List.of(), timeline.findOvertime(WorkingCalendar.STANDARD));
+
+        this.project3.addCommitment(this.employee1, 5);
+        List<OvertimeInterval> overtime = LoadTimeline.of(this.employee1).findOvertime(WorkingCalendar.STANDARD);
+        // 2019-03-15 until 2019-03-29 on project1 and project3, 2019-04-01 until 2019-04-15 on all three
+        assertEquals(1, overtime.size(), overtime.toString());
+        assertEquals(LocalDate.of(2019,4,1), overtime.get(0).getFirstDay());
+        assertEquals(LocalDate.of(2019,4,15), overtime.get(0).getLastDay());
+        assertEquals(1, overtime.get(0).getExcessHoursPerDay());
+        assertEquals(11, overtime.get(0).getTotalExcessHours());
+
+        this.project3.addCommitment(this.employee1, 1);
+        overtime = LoadTimeline.of(this.employee1).findOvertime(WorkingCalendar.STANDARD);
+        assertEquals(2, overtime.size(), overtime.toString());
+        assertEquals(LocalDate.of(2019,3,15), overtime.get(0).getFirstDay());
+        assertEquals(LocalDate.of(2019,3,29), overtime.get(0).getLastDay());
+        assertEquals(1, overtime.get(0).getExcessHoursPerDay());
+        assertEquals(2, overtime.get(1).getExcessHoursPerDay());
+    }
+
+    @Test
+    void T31_checkProjectSets() {
+        Set<Project> projects = this.employee1.getAssignedProjects();
+        assertEquals(List.of(this.project1, this.project2), new ArrayList<>(projects));
+        assertTrue(projects.add(this.project3));
+        assertFalse(projects.add(this.project3));
+        assertEquals(List.of(this.project1, this.project2, this.project3), new ArrayList<>(projects));
+        assertTrue(projects.contains(this.project2));
+        assertFalse(projects.contains(new Project("P2002")));
+
+        // projects with the same code are told apart by equals
+        Project placeholder = new Project("P2002");
+        assertTrue(projects.add(placeholder));
+        assertEquals(4, projects.size());
+        assertTrue(projects.contains(placeholder));
+        assertTrue(projects.removeIf(p -> p == placeholder));
+        assertTrue(projects.remove(this.project1));
+        assertEquals(Set.of(this.project2, this.project3), projects);
+        assertEquals(projects, new HashSet<>(projects));
+        assertEquals(new HashSet<>(projects).hashCode(), projects.hashCode());
+    }
+
+    @Test
+    void T32_checkProjectSetMemory() {
+        // employees with typical assignments: no managed projects and 0 - 3 assigned projects
+        int numEmployees = 10000;
+        Project[] projects = new Project[100];
+        for (int p = 0; p < projects.length; p++) {
+            projects[p] = new Project("M" + (1000 + p), "MemoryProject-" + p,
+                    LocalDate.of(2019,1,1), LocalDate.of(2019,12,31));
+        }
+        Random randomizer = new Random(32);
+        Object[] hashSets = new Object[2 * numEmployees];
+        Object[] projectSets = new Object[2 * numEmployees];
+        for (int e = 0; e < numEmployees; e++) {
+            Set<Project> assigned = new HashSet<>();
+            for (int n = e % 4; n > 0; n--) {
+                assigned.add(projects[randomizer.nextInt(projects.length)]);
+            }
+            // the layout of the sets before and after
+            hashSets[2 * e] = new HashSet<Project>();
+            hashSets[2 * e + 1] = new HashSet<>(assigned);
+            projectSets[2 * e] = new ProjectSet();
+            projectSets[2 * e + 1] = new ProjectSet(assigned);
+        }
+        hashSets[1] = new HashSet<>(Arrays.asList(projects));
+        projectSets[1] = new ProjectSet(Arrays.asList(projects));
+
+        // only count the sets themselves, not the projects
+        GraphLayout projectsLayout = GraphLayout.parseInstance((Object[]) projects);
+        long hashSetBytes = GraphLayout.parseInstance(hashSets).subtract(projectsLayout).totalSize();
+        long projectSetBytes = GraphLayout.parseInstance(projectSets).subtract(projectsLayout).totalSize();
+        System.out.printf("Project sets per employee: %d bytes with HashSet, %d bytes with ProjectSet\n",
+                hashSetBytes / numEmployees, projectSetBytes / numEmployees);
+        assertTrue(2 * projectSetBytes < hashSetBytes, projectSetBytes + " vs " + hashSetBytes);
+    }
 }
@@ -3,8 +3,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import utils.HolidayCalendar;
+import utils.IntIntMap;
 
 import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,6 +59,241 @@ class PPSTest {
                         this.employee1.calculateManagedBudget(),"managed budget employee1");
     }
 
+    @Test
+    void T22_checkIncrementalAggregates() {
+        assertEquals(this.project1.calculateManpowerBudget()+this.project2.calculateManpowerBudget()+
+                this.project3.calculateManpowerBudget(), this.pps.calculateTotalManpowerBudget());
+        assertEquals((20+25+30)/3.0, this.pps.calculateAverageHourlyWage(), 0.000001);
+
+        // changes after the build are followed through the projects
+        this.project3.addCommitment(this.employee1, 2);
+        this.project2.addCommitment(this.employee2, 5);
+        assertEquals(this.project1.calculateManpowerBudget()+this.project2.calculateManpowerBudget()+
+                this.project3.calculateManpowerBudget(), this.pps.calculateTotalManpowerBudget());
+        Map<Employee, Integer> overview = this.pps.calculateManagedBudgetOverview(e -> true);
+        assertEquals(this.employee1.calculateManagedBudget(), overview.get(this.employee1));
+        assertEquals(this.employee2.calculateManagedBudget(), overview.get(this.employee2));
+        assertEquals(0, overview.get(this.employee3));
+    }
+
+    @Test
+    void T23_checkInvolvementQueries() {
+        Project project4 = new Project("P4004", "TestProject-4",
+                LocalDate.of(2019,6,1), LocalDate.of(2019,6,30));
+        project4.addCommitment(this.employee3, 2);
+        PPS pps = new PPS.Builder()
+                .addEmployee(this.employee1)
+                .addEmployee(this.employee2)
+                .addEmployee(this.employee3)
+                .addProject(this.project1, this.employee1)
+                .addProject(this.project2, this.employee1)
+                .addProject(this.project3, this.employee1)
+                .addProject(project4, this.employee2)
+                .addCommitment("P1001", 60006, 4)
+                .addCommitment("P1001", 88808, 1)
+                .addCommitment("P2002", 88808, 3)
+                .addCommitment("P2002", 88808, 1)
+                .build();
+        // employee3 is assigned to P1001, P2002 and P4004, employee1 and employee2 only to P1001
+        assertEquals(Set.of(this.employee3), pps.findMaximallyInvolvedEmployees());
+        assertEquals(List.of(this.employee3, this.employee1), pps.findTopInvolvedEmployees(2));
+        assertEquals(Set.of(this.employee1, this.employee2, this.employee3), pps.findEmployeesWithMinAssignments(1));
+        assertEquals(Set.of(this.employee3), pps.findEmployeesWithMinAssignments(2));
+        assertEquals(Set.of(), pps.calculateMostInvolvedEmployees());
+
+        this.project3.addCommitment(this.employee1, 1);
+        this.project2.addCommitment(this.employee1, 1);
+        this.project3.addCommitment(this.employee1, 1);
+        assertEquals(Set.of(this.employee1, this.employee3), pps.findMaximallyInvolvedEmployees());
+        assertEquals(List.of(this.employee1, this.employee3, this.employee2), pps.findTopInvolvedEmployees(5));
+        assertEquals(List.of(this.employee1), pps.findTopInvolvedEmployees(1));
+        assertEquals(List.of(), pps.findTopInvolvedEmployees(0));
+        assertEquals(List.of(), pps.findTopInvolvedEmployees(-1));
+    }
+
+    @Test
+    void T24_checkInvolvementQueries_e50_p100() {
+        PPS pps = PPS.importFromXML("HvA2019_e50_p100.xml");
+        int maxCount = pps.getEmployees().stream().mapToInt(e -> e.getAssignedProjects().size()).max().getAsInt();
+        for (int threshold = 0; threshold <= maxCount + 1; threshold++) {
+            int minCount = threshold;
+            assertEquals(pps.getEmployees().stream()
+                            .filter(e -> e.getAssignedProjects().size() >= minCount)
+                            .collect(Collectors.toSet()),
+                    new HashSet<>(pps.findEmployeesWithMinAssignments(threshold)), "threshold " + threshold);
+        }
+        List<Employee> top = pps.findTopInvolvedEmployees(10);
+        assertEquals(pps.getEmployees().stream()
+                        .sorted(Comparator.comparing((Employee e) -> -e.getAssignedProjects().size())
+                                .thenComparing(Employee::getNumber))
+                        .limit(10).collect(Collectors.toList()), top);
+    }
+
+    @Test
+    void T25_checkManagedBudgets_e50_p100() {
+        PPS pps = PPS.importFromXML("HvA2019_e50_p100.xml");
+        IntIntMap managedBudgets = pps.calculateManagedBudgets();
+        Map<Employee, Integer> overview = pps.calculateManagedBudgetOverview(e -> true);
+        for (Employee employee : pps.getEmployees()) {
+            assertEquals(employee.calculateManagedBudget(), managedBudgets.get(employee.getNumber()), employee.toString());
+            assertEquals(employee.calculateManagedBudget(), overview.get(employee), employee.toString());
+        }
+    }
+
+    @Test
+    void T26_checkBuilderBulkCommitments() {
+        PPS.Builder builder = new PPS.Builder();
+        int numEmployees = 500, numProjects = 200, numCommitments = 20000;
+        for (int e = 0; e < numEmployees; e++) {
+            builder.addEmployee(new Employee(200000 + e, 20 + e % 10));
+        }
+        List<Project> projects = new ArrayList<>();
+        for (int p = 0; p < numProjects; p++) {
+            Project project = new Project("B" + p, "BulkProject-" + p,
+                    LocalDate.of(2019,1,1).plusDays(p), LocalDate.of(2019,6,30).plusDays(p));
+            projects.add(project);
+            builder.addProject(project, new Employee(200000 + p % numEmployees));
+        }
+        String[] codes = new String[numCommitments + 2];
+        int[] numbers = new int[numCommitments + 2];
+        int[] hours = new int[numCommitments + 2];
+        for (int c = 0; c < numCommitments; c++) {
+            codes[c] = "B" + (c / (numCommitments / numProjects));
+            numbers[c] = 200000 + (c * 7) % numEmployees;
+            hours[c] = 1 + c % 3;
+        }
+        // unknown projects and employees are skipped
+        codes[numCommitments] = "X1"; numbers[numCommitments] = 200000; hours[numCommitments] = 1;
+        codes[numCommitments + 1] = "B0"; numbers[numCommitments + 1] = 1; hours[numCommitments + 1] = 1;
+        PPS pps = builder.addCommitments(codes, numbers, hours).build();
+
+        assertEquals(numEmployees, pps.getEmployees().size());
+        assertEquals(numProjects, pps.getProjects().size());
+        int expectedBudget = 0;
+        for (int c = 0; c < numCommitments; c++) {
+            expectedBudget += (20 + (numbers[c] - 200000) % 10) * hours[c] *
+                    projects.get(c / (numCommitments / numProjects)).getNumWorkingDays();
+        }
+        assertEquals(expectedBudget, pps.calculateTotalManpowerBudget());
+        assertEquals(expectedBudget, pps.getProjects().stream().mapToInt(Project::calculateManpowerBudget).sum());
+        // the managers are the employees that were added first
+        Employee manager = pps.getEmployees().stream().filter(e -> e.getNumber() == 200000).findAny().orElseThrow();
+        assertEquals(Set.of(projects.get(0)), manager.getManagedProjects());
+
+        // single commitments use the same indices
+        Project project = new Project("S1", "SingleProject", LocalDate.of(2019,1,1), LocalDate.of(2019,1,31));
+        pps = new PPS.Builder()
+                .addProject(project, new Employee(200001, 40))
+                .addCommitment("S1", 200001, 2)
+                .addCommitment("B1", 200001, 2)
+                .build();
+        assertEquals(2 * 40 * project.getNumWorkingDays(), pps.calculateTotalManpowerBudget());
+    }
+
+    @Test
+    void T27_checkImportLinking() {
+        PPS pps = PPS.importFromXML("HvA2019_e50_p100.xml");
+        Map<Integer, Employee> employeesByNumber = pps.getEmployees().stream()
+                .collect(Collectors.toMap(Employee::getNumber, e -> e));
+        int numCommitments = 0;
+        for (Project project : pps.getProjects()) {
+            for (Employee employee : project.getCommittedHoursPerDay().keySet()) {
+                // the commitments refer to the imported employees themselves
+                assertSame(employeesByNumber.get(employee.getNumber()), employee, project + " " + employee);
+                numCommitments++;
+            }
+        }
+        assertTrue(numCommitments > 0);
+    }
+
+    @Test
+    void T28_checkDenseIds() {
+        IdRegistry ids = this.pps.getIds();
+        assertEquals(3, ids.getNumEmployees());
+        assertEquals(3, ids.getNumProjects());
+        for (Employee employee : this.pps.getEmployees()) {
+            assertSame(employee, ids.getEmployee(ids.findId(employee)));
+        }
+        for (Project project : this.pps.getProjects()) {
+            assertSame(project, ids.getProject(ids.findId(project)));
+        }
+        // equal objects that have not joined the system have no id
+        assertEquals(-1, ids.findId(new Employee(60006, 20)));
+
+        // objects that join another system later keep their id in this system, also when they get another id there
+        Employee manager = new Employee(11111, 50);
+        PPS other = new PPS.Builder()
+                .addEmployee(manager)
+                .addEmployee(new Employee(22222, 40))
+                .addEmployee(this.employee3)
+                .addProject(new Project("P0000", "TestProject-0",
+                        LocalDate.of(2019,1,1), LocalDate.of(2019,1,31)), manager)
+                .addProject(this.project3, manager)
+                .build();
+        assertEquals(1, other.getIds().findId(this.project3));
+        assertEquals(2, other.getIds().findId(this.employee3));
+        assertNotEquals(ids.findId(this.project3), other.getIds().findId(this.project3));
+        assertNotEquals(ids.findId(this.employee3), other.getIds().findId(this.employee3));
+        assertSame(this.project3, ids.getProject(ids.findId(this.project3)));
+        assertSame(this.employee3, ids.getEmployee(ids.findId(this.employee3)));
+        assertSame(this.project3, other.getIds().getProject(other.getIds().findId(this.project3)));
+        assertSame(this.employee3, other.getIds().getEmployee(other.getIds().findId(this.employee3)));
+
+        // both systems follow the changes of the shared objects
+        this.project3.addCommitment(this.employee3, 8);
+        assertEquals(3, ids.getNumProjects());
+        assertEquals(3, ids.getNumEmployees());
+        assertEquals(this.project1.calculateManpowerBudget() + this.project2.calculateManpowerBudget() +
+                this.project3.calculateManpowerBudget(), this.pps.calculateTotalManpowerBudget());
+        assertEquals(this.project3.calculateManpowerBudget(),
+                this.pps.calculateManagedBudgetOverview(e -> true).get(this.employee2));
+        assertEquals(Set.of(this.employee3), this.pps.findEmployeesWithMinAssignments(3));
+        assertEquals(this.project3.calculateManpowerBudget(), other.calculateTotalManpowerBudget());
+        assertEquals(this.project3.calculateManpowerBudget(),
+                other.calculateManagedBudgetOverview(e -> true).get(manager));
+        assertEquals(Set.of(this.employee3), other.findEmployeesWithMinAssignments(1));
+
+        // a snapshot of the commitments does not register employees from outside the system
+        assertEquals(this.project3.calculateManpowerBudget(),
+                other.getCommitmentStore().calculateTotalManpowerBudget());
+        assertEquals(3, other.getIds().getNumEmployees());
+    }
+
+    @Test
+    void T29_checkDanglingProjectReferences() {
+        // the employee manages and is assigned to a project code that is not in the file
+        PPS pps = PPS.importFromXML("HvA2011_e1_p1_dangling.xml");
+        assertNotNull(pps);
+        assertEquals(1, pps.getProjects().size());
+        Employee employee = pps.getEmployees().iterator().next();
+        assertEquals(2, employee.getManagedProjects().size());
+        assertEquals(4416, pps.calculateTotalManpowerBudget());
+        assertEquals(4416, pps.calculateManagedBudgetOverview(e -> true).get(employee));
+        assertEquals(Set.of(employee), pps.findEmployeesWithMinAssignments(2));
+        pps.printPlanningStatistics();
+
+        // projects without dates can be added and followed
+        Employee manager = new Employee(11111, 50);
+        Project placeholder = new Project("P9");
+        PPS other = new PPS.Builder()
+                .addEmployee(manager)
+                .addProject(placeholder, manager)
+                .addProject(this.project3, manager)
+                .build();
+        placeholder.addCommitment(manager, 2);
+        this.project3.addCommitment(manager, 1);
+        assertEquals(this.project3.calculateManpowerBudget(), other.calculateTotalManpowerBudget());
+        assertEquals(this.project3.calculateManpowerBudget(), other.calculateManagedBudgetOverview(e -> true).get(manager));
+        MonthlySpendReport report = other.calculateMonthlySpendReport();
+        assertEquals(this.project3.calculateManpowerBudget(),
+                report.getSpend(YearMonth.of(2019, 3)) + report.getSpend(YearMonth.of(2019, 4)));
+        assertEquals(Set.of(manager), other.findEmployeesWithMinAssignments(2));
+        assertEquals(List.of(this.project3), other.findProjectsOverlapping(LocalDate.of(2019,1,1), LocalDate.of(2019,12,31)));
+        assertEquals(List.of(), other.calculateOvertime());
+        assertEquals(this.project3.calculateManpowerBudget(), other.calculateSpendTimeSeries().getTotalSpend());
+        other.printPlanningStatistics();
+    }
+
     @Test
     void T31_checkStatistics_e1_p1() {
         PPS pps = PPS.importFromXML("HvA2011_e1_p1.xml");
@@ -80,4 +323,401 @@ class PPSTest {
                 pps.calculateLongestProject().toString(),"longest project");
         assertEquals(225250, pps.calculateTotalManpowerBudget(),"total manpower budget");
     }
-}
\ No newline at end of file
+
+    @Test
+    void T36_checkSpendTimeSeries() {
+        for (String resourceName : List.of("HvA2015_e5_p5.xml", "HvA2019_e50_p100.xml")) {
+            PPS pps = PPS.importFromXML(resourceName);
+            SpendTimeSeries timeSeries = pps.calculateSpendTimeSeries();
+            assertEquals(pps.calculateTotalManpowerBudget(), timeSeries.getTotalSpend(), resourceName);
+
+            Map<Month, Integer> monthlySpends = pps.calculateCumulativeMonthlySpends();
+            int year = timeSeries.getFirstDay().getYear();
+            for (Month month : Month.values()) {
+                assertEquals((long)monthlySpends.getOrDefault(month, 0),
+                        timeSeries.getMonthlySpend(YearMonth.of(year, month)), resourceName + " " + month);
+            }
+            long quarters = 0;
+            for (int quarter = 1; quarter <= 4; quarter++) {
+                quarters += timeSeries.getQuarterlySpend(year, quarter);
+            }
+            assertEquals(timeSeries.getTotalSpend(), quarters, resourceName);
+
+            for (Project project : pps.getProjects()) {
+                // the first day of a project is a working day
+                assertTrue(timeSeries.getDailySpend(project.getStartDate()) >= project.calculateDailyManpowerCost());
+            }
+        }
+
+        // 2019-02-01 is in ISO week 5, 2019-04-30 in ISO week 18
+        SpendTimeSeries timeSeries = this.pps.calculateSpendTimeSeries();
+        assertEquals(this.project1.calculateDailyManpowerCost(), timeSeries.getWeeklySpend(2019, 5));
+        assertEquals(0, timeSeries.getWeeklySpend(2019, 4));
+        assertEquals(this.project1.calculateDailyManpowerCost() + 6L * this.project2.calculateDailyManpowerCost(),
+                timeSeries.getSpend(LocalDate.of(2019,4,30), LocalDate.of(2019,5,7)));
+        assertEquals(0, timeSeries.getDailySpend(LocalDate.of(2019,4,6)), "saturday");
+
+        // every project spends on the working days of its own calendar
+        Project project4 = new Project("P4004", "TestProject-4",
+                LocalDate.of(2019,4,8), LocalDate.of(2019,4,19),
+                new HolidayCalendar.Builder().addHoliday(LocalDate.of(2019,4,12)).build());
+        project4.addCommitment(this.employee1, 2);
+        this.project3.addCommitment(this.employee3, 1);
+        timeSeries = new PPS.Builder()
+                .addProject(this.project3, this.employee2)
+                .addProject(project4, this.employee1)
+                .build().calculateSpendTimeSeries();
+        assertEquals(this.project3.calculateManpowerBudget() + project4.calculateManpowerBudget(),
+                timeSeries.getTotalSpend());
+        assertEquals(this.project3.calculateDailyManpowerCost(), timeSeries.getDailySpend(LocalDate.of(2019,4,12)));
+        assertEquals(this.project3.calculateDailyManpowerCost() + project4.calculateDailyManpowerCost(),
+                timeSeries.getDailySpend(LocalDate.of(2019,4,11)));
+        assertEquals(project4.calculateDailyManpowerCost(), timeSeries.getDailySpend(LocalDate.of(2019,4,18)));
+
+        // a portfolio without projects has no days, whenever it is calculated
+        timeSeries = new PPS.Builder().build().calculateSpendTimeSeries();
+        assertNull(timeSeries.getFirstDay());
+        assertNull(timeSeries.getLastDay());
+        assertEquals(0, timeSeries.getTotalSpend());
+        assertEquals(0, timeSeries.getMonthlySpend(YearMonth.now()));
+    }
+
+    @Test
+    void T37_checkMonthlySpendReport() {
+        Project project4 = new Project("P4004", "TestProject-4",
+                LocalDate.of(2019,12,2), LocalDate.of(2020,1,31));
+        PPS pps = new PPS.Builder()
+                .addProject(this.project1, this.employee1)
+                .addProject(project4, this.employee1)
+                .addCommitment("P4004", 60006, 2)
+                .build();
+        MonthlySpendReport report = pps.calculateMonthlySpendReport();
+        assertEquals(YearMonth.of(2019,2), report.getFirstMonth());
+        assertEquals(YearMonth.of(2020,1), report.getLastMonth());
+        int dailyCost1 = this.project1.calculateDailyManpowerCost();
+        assertEquals(0, report.getSpend(YearMonth.of(2019,1)));
+        assertEquals(20L * dailyCost1, report.getSpend(YearMonth.of(2019,2)));
+        assertEquals(22L * 2 * 20, report.getSpend(YearMonth.of(2019,12)));
+        assertEquals(23L * 2 * 20, report.getSpend(YearMonth.of(2020,1)));
+        assertEquals(0, report.getSpend(YearMonth.of(2020,2)));
+        assertEquals(pps.calculateTotalManpowerBudget(), report.getCumulativeSpend(YearMonth.of(2020,1)));
+        assertEquals(pps.calculateTotalManpowerBudget(), report.getCumulativeSpend(YearMonth.of(2030,1)));
+        assertEquals(this.project1.calculateManpowerBudget(), report.getCumulativeSpend(YearMonth.of(2019,11)));
+        assertEquals(report.getSpend(YearMonth.of(2019,2)), report.getCumulativeMonthlySpends().get(YearMonth.of(2019,2)));
+    }
+
+    @Test
+    void T38_checkProjectIntervalQueries() {
+        assertEquals(List.of(this.project1, this.project3, this.project2),
+                this.pps.findProjectsActiveOn(LocalDate.of(2019,4,1)));
+        assertEquals(List.of(this.project1), this.pps.findProjectsActiveOn(LocalDate.of(2019,3,14)));
+        assertEquals(List.of(), this.pps.findProjectsActiveOn(LocalDate.of(2019,6,1)));
+        assertEquals(List.of(this.project2),
+                this.pps.findProjectsOverlapping(LocalDate.of(2019,5,1), LocalDate.of(2019,12,31)));
+
+        // a larger portfolio that is built project by project, while being queried
+        Random randomizer = new Random(38);
+        PPS.Builder builder = new PPS.Builder();
+        for (int p = 0; p < 2000; p++) {
+            LocalDate startDate = LocalDate.of(2018,1,1).plusDays(randomizer.nextInt(700));
+            builder.addProject(new Project(String.format("P%06d", p), "Project-" + p,
+                    startDate, startDate.plusDays(randomizer.nextInt(200))), this.employee1);
+            if (p % 100 == 0) {
+                PPS pps = builder.build();
+                for (int q = 0; q < 20; q++) {
+                    LocalDate firstDay = LocalDate.of(2018,1,1).plusDays(randomizer.nextInt(1000));
+                    LocalDate lastDay = firstDay.plusDays(randomizer.nextInt(100));
+                    assertEquals(pps.getProjects().stream()
+                                    .filter(project -> !project.getStartDate().isAfter(lastDay) &&
+                                            !project.getEndDate().isBefore(firstDay))
+                                    .sorted(Comparator.comparing(Project::getStartDate)
+                                            .thenComparing(Comparator.naturalOrder()))
+                                    .collect(Collectors.toList()),
+                            pps.findProjectsOverlapping(firstDay, lastDay),
+                            firstDay + " - " + lastDay);
+                }
+            }
+        }
+    }
+
+    @Test
+    void T39_checkOvertime_e50_p100() {
+        PPS pps = PPS.importFromXML("HvA2019_e50_p100.xml");
+        List<OvertimeInterval> overtime = pps.calculateOvertime();
+
+        // check every working day against the commitments of all projects
+        int totalExcessHours = 0;
+        for (Employee employee : pps.getEmployees()) {
+            for (LocalDate day = LocalDate.of(2019,1,1); day.getYear() == 2019; day = day.plusDays(1)) {
+                if (!pps.getCalendar().isWorkingDay(day)) continue;
+                LocalDate date = day;
+                int load = employee.getAssignedProjects().stream()
+                        .filter(p -> !p.getStartDate().isAfter(date) && !p.getEndDate().isBefore(date))
+                        .mapToInt(p -> p.getCommittedHoursPerDay().getOrDefault(employee, 0))
+                        .sum();
+                totalExcessHours += Math.max(0, load - pps.getCalendar().getWorkingHoursPerDay());
+            }
+        }
+        assertEquals(totalExcessHours, overtime.stream().mapToInt(OvertimeInterval::getTotalExcessHours).sum());
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        pps.setForkJoinPool(forkJoinPool);
+        assertEquals(overtime.toString(), pps.calculateOvertime().toString());
+        forkJoinPool.shutdown();
+    }
+
+    @Test
+    void T40_checkAvailableEmployees() {
+        // employee1 4h on P1001, employee2 3h on P1001, employee3 2h on P1001 and 4h on P2002
+        assertEquals(List.of(this.employee1, this.employee2, this.employee3),
+                this.pps.findAvailableEmployees(4, LocalDate.of(2019,1,1), LocalDate.of(2019,1,31)));
+        assertEquals(List.of(this.employee1, this.employee2, this.employee3),
+                this.pps.findAvailableEmployees(2, LocalDate.of(2019,4,1), LocalDate.of(2019,4,30)));
+        assertEquals(List.of(this.employee1, this.employee2),
+                this.pps.findAvailableEmployees(4, LocalDate.of(2019,4,1), LocalDate.of(2019,4,30)));
+        assertEquals(List.of(this.employee1, this.employee2, this.employee3),
+                this.pps.findAvailableEmployees(4, LocalDate.of(2019,5,1), LocalDate.of(2019,5,3)));
+        // 2019-05-04 and 2019-05-05 are a weekend during P2002, without any working day
+        assertEquals(List.of(this.employee1, this.employee2, this.employee3),
+                this.pps.findAvailableEmployees(8, LocalDate.of(2019,5,4), LocalDate.of(2019,5,5)));
+
+        this.project2.addCommitment(this.employee1, 5);
+        assertEquals(List.of(this.employee2, this.employee3),
+                this.pps.findAvailableEmployees(4, LocalDate.of(2019,5,1), LocalDate.of(2019,5,3)));
+    }
+
+    @Test
+    void T41_checkPlanningStatistics() {
+        for (String resourceName : List.of("HvA2015_e5_p5.xml", "HvA2018_e10_p25.xml", "HvA2019_e50_p100.xml")) {
+            PPS pps = PPS.importFromXML(resourceName);
+            PlanningStatistics statistics = pps.calculatePlanningStatistics(e -> e.getHourlyWage() <= 30);
+            assertEquals(pps.calculateAverageHourlyWage(), statistics.getAverageHourlyWage(), resourceName);
+            assertEquals(pps.calculateLongestProject(), statistics.getLongestProject(), resourceName);
+            assertEquals(pps.calculateMostInvolvedEmployees(), statistics.getMostInvolvedEmployees(), resourceName);
+            assertEquals(pps.calculateTotalManpowerBudget(), statistics.getTotalManpowerBudget(), resourceName);
+            assertEquals(pps.calculateManagedBudgetOverview(e -> e.getHourlyWage() <= 30),
+                    statistics.getManagedBudgetOverview(), resourceName);
+            assertEquals(pps.calculateCumulativeMonthlySpends(), statistics.getCumulativeMonthlySpends(), resourceName);
+        }
+    }
+
+    @Test
+    void T42_checkParallelStatistics() {
+        // a larger portfolio with many projects of equal length, to check the tie-breaking
+        Random randomizer = new Random(42);
+        PPS.Builder builder = new PPS.Builder();
+        for (int e = 0; e < 300; e++) {
+            builder.addEmployee(new Employee(200000 + e, 16 + randomizer.nextInt(60)));
+        }
+        for (int p = 0; p < 3000; p++) {
+            LocalDate startDate = LocalDate.of(2019,1,1).plusDays(randomizer.nextInt(300));
+            builder.addProject(new Project(String.format("P%06d", p), "Project-" + p,
+                            startDate, startDate.plusDays(7 * randomizer.nextInt(12))),
+                    new Employee(200000 + randomizer.nextInt(300)));
+            for (int c = 0; c < 3; c++) {
+                builder.addCommitment(String.format("P%06d", p), 200000 + randomizer.nextInt(300), 1 + randomizer.nextInt(4));
+            }
+        }
+        PPS pps = builder.build();
+        Predicate<Employee> filter = e -> e.getHourlyWage() <= 30;
+        PlanningStatistics statistics = pps.calculatePlanningStatistics(filter);
+        double averageHourlyWage = pps.calculateAverageHourlyWage();
+        Project longestProject = pps.calculateLongestProject();
+        Set<Employee> mostInvolvedEmployees = pps.calculateMostInvolvedEmployees();
+        int totalManpowerBudget = pps.calculateTotalManpowerBudget();
+        Map<Employee, Integer> managedBudgetOverview = pps.calculateManagedBudgetOverview(filter);
+        Map<Month, Integer> monthlySpends = pps.calculateCumulativeMonthlySpends();
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        pps.setForkJoinPool(forkJoinPool);
+        assertEquals(averageHourlyWage, pps.calculateAverageHourlyWage());
+        assertSame(longestProject, pps.calculateLongestProject());
+        assertEquals(mostInvolvedEmployees, pps.calculateMostInvolvedEmployees());
+        assertEquals(totalManpowerBudget, pps.calculateTotalManpowerBudget());
+        assertEquals(managedBudgetOverview, pps.calculateManagedBudgetOverview(filter));
+        assertEquals(monthlySpends, pps.calculateCumulativeMonthlySpends());
+
+        PlanningStatistics parallelStatistics = pps.calculatePlanningStatistics(filter);
+        assertEquals(statistics.getAverageHourlyWage(), parallelStatistics.getAverageHourlyWage());
+        assertSame(longestProject, parallelStatistics.getLongestProject());
+        assertSame(statistics.getLongestProject(), parallelStatistics.getLongestProject());
+        assertEquals(statistics.getMostInvolvedEmployees(), parallelStatistics.getMostInvolvedEmployees());
+        assertEquals(statistics.getTotalManpowerBudget(), parallelStatistics.getTotalManpowerBudget());
+        assertEquals(statistics.getManagedBudgetOverview(), parallelStatistics.getManagedBudgetOverview());
+        assertEquals(statistics.getCumulativeMonthlySpends(), parallelStatistics.getCumulativeMonthlySpends());
+        forkJoinPool.shutdown();
+    }
+
+    @Test
+    void T43_checkEarliestProjectStart() {
+        // employee3 has 2h until 2019-03-31, 6h in april and 4h in may
+        assertEquals(LocalDate.of(2019,3,4),
+                this.pps.findEarliestProjectStart(10, Map.of(this.employee1, 4, this.employee3, 4), LocalDate.of(2019,3,2)));
+        assertEquals(LocalDate.of(2019,5,1),
+                this.pps.findEarliestProjectStart(10, Map.of(this.employee1, 4, this.employee3, 4), LocalDate.of(2019,3,25)));
+        assertEquals(LocalDate.of(2019,6,3),
+                this.pps.findEarliestProjectStart(10, Map.of(this.employee1, 4, this.employee3, 5), LocalDate.of(2019,3,25)));
+        assertEquals(LocalDate.of(2019,3,25),
+                this.pps.findEarliestProjectStart(5, Map.of(this.employee3, 6), LocalDate.of(2019,3,23)));
+        assertNull(this.pps.findEarliestProjectStart(10, Map.of(this.employee1, 9), LocalDate.of(2019,3,25)));
+
+        // compare with trying every start day
+        Map<Employee, Integer> commitments = Map.of(this.employee2, 5, this.employee3, 3);
+        LocalDate expected = LocalDate.of(2019,1,1);
+        while (!isFeasibleStart(expected, 30, commitments)) expected = expected.plusDays(1);
+        assertEquals(expected, this.pps.findEarliestProjectStart(30, commitments, LocalDate.of(2019,1,1)));
+    }
+
+    private boolean isFeasibleStart(LocalDate start, int numWorkingDays, Map<Employee, Integer> commitments) {
+        if (!utils.Calendar.isWorkingDay(start)) return false;
+        LocalDate day = start;
+        for (int n = 0; n < numWorkingDays; day = day.plusDays(1)) {
+            if (!utils.Calendar.isWorkingDay(day)) continue;
+            for (Map.Entry<Employee, Integer> commitment : commitments.entrySet()) {
+                if (LoadTimeline.of(commitment.getKey()).getLoad(day) + commitment.getValue() > 8) return false;
+            }
+            n++;
+        }
+        return true;
+    }
+
+    @Test
+    void T44_checkLevellingPlan() {
+        // P1001 costs 4*20+3*25+2*30 = 215 per day, P2002 4*30 = 120 per day, and they overlap in april
+        LevellingPlan plan = this.pps.calculateLevellingPlan(30, 4, 2000, 44);
+        assertEquals(335, plan.getPeakDailySpendBefore());
+        assertEquals(215, plan.getPeakDailySpendAfter());
+        assertFalse(plan.getMovedProjects().isEmpty());
+        for (Project project : plan.getMovedProjects()) {
+            assertEquals(project.getNumWorkingDays(),
+                    utils.Calendar.getNumWorkingDays(plan.getStartDate(project), plan.getEndDate(project)));
+        }
+        assertFalse(plan.getEndDate(this.project1).isAfter(plan.getStartDate(this.project2)) &&
+                plan.getEndDate(this.project2).isAfter(plan.getStartDate(this.project1)), plan.toString());
+        // the projects are not changed
+        assertEquals(LocalDate.of(2019,4,1), this.project2.getStartDate());
+        assertEquals(plan.getStartDate(this.project3), this.project3.getStartDate());
+
+        // no slack, no moves
+        plan = this.pps.calculateLevellingPlan(0, 4, 2000, 44);
+        assertEquals(335, plan.getPeakDailySpendAfter());
+        assertTrue(plan.getMovedProjects().isEmpty());
+
+        // the same plan in parallel mode
+        ForkJoinPool forkJoinPool = new ForkJoinPool(3);
+        LevellingPlan sequentialPlan = this.pps.calculateLevellingPlan(30, 4, 2000, 45);
+        this.pps.setForkJoinPool(forkJoinPool);
+        LevellingPlan parallelPlan = this.pps.calculateLevellingPlan(30, 4, 2000, 45);
+        assertEquals(sequentialPlan.getStartDate(this.project1), parallelPlan.getStartDate(this.project1));
+        assertEquals(sequentialPlan.getStartDate(this.project2), parallelPlan.getStartDate(this.project2));
+        forkJoinPool.shutdown();
+    }
+
+    @Test
+    void T45_checkScenarios() {
+        int totalBudget = this.pps.calculateTotalManpowerBudget();
+        int p1Budget = this.project1.calculateManpowerBudget();
+        int p2Budget = this.project2.calculateManpowerBudget();
+        int managedBudget1 = this.pps.calculateManagedBudgetOverview(e -> true).get(this.employee1);
+
+        Scenario scenario = this.pps.fork()
+                .changeHourlyWage(this.employee3, 40)
+                .moveProject(this.project2, LocalDate.of(2019,6,1))
+                .addCommitment(this.project3, this.employee2, 2);
+
+        // employee3 has 2h on P1001 and 4h on P2002, employee2 now has 2h on P3003
+        int p3Budget = 2 * 25 * this.project3.getNumWorkingDays();
+        assertEquals(p1Budget + 10 * 2 * this.project1.getNumWorkingDays(), scenario.calculateManpowerBudget(this.project1));
+        assertEquals(p2Budget + 10 * 4 * this.project2.getNumWorkingDays(), scenario.calculateManpowerBudget(this.project2));
+        assertEquals(p3Budget, scenario.calculateManpowerBudget(this.project3));
+        assertEquals(scenario.calculateManpowerBudget(this.project1) + scenario.calculateManpowerBudget(this.project2) +
+                p3Budget, scenario.calculateTotalManpowerBudget());
+        assertEquals((20+25+40)/3.0, scenario.calculateAverageHourlyWage(), 0.000001);
+        assertEquals(scenario.calculateManpowerBudget(this.project1) + scenario.calculateManpowerBudget(this.project2),
+                scenario.calculateManagedBudget(this.employee1));
+        assertEquals(p3Budget, scenario.calculateManagedBudget(this.employee2));
+
+        Project movedProject2 = scenario.getProject(this.project2);
+        assertEquals(LocalDate.of(2019,6,3), movedProject2.getStartDate());
+        assertEquals(this.project2.getNumWorkingDays(), movedProject2.getNumWorkingDays());
+        assertEquals(40, scenario.getEmployee(this.employee3).getHourlyWage());
+        assertEquals(this.employee3, scenario.getEmployee(this.employee3));
+        assertEquals(3, scenario.getNumCopies());
+
+        // april has 22 working days, P3003 has 11 of them and P2002 has moved out
+        MonthlySpendReport report = scenario.calculateMonthlySpendReport();
+        assertEquals((4*20+3*25+2*40) * 22 + 2*25 * 11, report.getSpend(YearMonth.of(2019,4)));
+        assertEquals(scenario.calculateTotalManpowerBudget(), report.getCumulativeSpend(report.getLastMonth()));
+
+        // the baseline is not changed
+        assertEquals(totalBudget, this.pps.calculateTotalManpowerBudget());
+        assertEquals(p2Budget, this.project2.calculateManpowerBudget());
+        assertEquals(managedBudget1, this.employee1.calculateManagedBudget());
+        assertEquals(LocalDate.of(2019,4,1), this.project2.getStartDate());
+        assertEquals(30, this.employee3.getHourlyWage());
+        assertFalse(this.employee2.getAssignedProjects().contains(this.project3));
+        assertTrue(this.project3.getCommittedHoursPerDay().isEmpty());
+        assertEquals(this.pps.calculateMonthlySpendReport().getMonthlySpends(),
+                this.pps.fork().calculateMonthlySpendReport().getMonthlySpends());
+
+        // projects and employees from outside the baseline are kept by the scenario, not registered in the baseline
+        int numProjects = this.pps.getIds().getNumProjects();
+        int numEmployees = this.pps.getIds().getNumEmployees();
+        Project outsideProject = new Project("P9009", "TestProject-9",
+                LocalDate.of(2019,3,1), LocalDate.of(2019,3,31));
+        Employee outsideEmployee = new Employee(99009, 50);
+        scenario = this.pps.fork()
+                .addCommitment(outsideProject, outsideEmployee, 1)
+                .addCommitment(outsideProject, this.employee1, 2)
+                .changeHourlyWage(outsideEmployee, 60);
+        assertEquals((60 + 2*20) * outsideProject.getNumWorkingDays(), scenario.calculateManpowerBudget(outsideProject));
+        assertEquals(60, scenario.getEmployee(outsideEmployee).getHourlyWage());
+        assertEquals(totalBudget, scenario.calculateTotalManpowerBudget());
+        assertEquals(numProjects, this.pps.getIds().getNumProjects());
+        assertEquals(numEmployees, this.pps.getIds().getNumEmployees());
+        assertEquals(-1, this.pps.getIds().findId(outsideProject));
+        assertEquals(-1, this.pps.getIds().findId(outsideEmployee));
+    }
+
+    @Test
+    void T46_checkCommitmentStore() {
+        CommitmentStore store = this.pps.getCommitmentStore();
+        assertEquals(3, store.getNumProjects());
+        assertEquals(3, store.getNumEmployees());
+        assertEquals(4, store.getNumCommitments());
+        CommitmentStore.CommitmentView commitments = this.project1.getCommitments(store);
+        assertEquals(3, commitments.size());
+        assertEquals(this.employee1, commitments.getEmployee(0));
+        assertEquals(4, commitments.getHoursPerDay(0));
+        assertEquals(this.employee3, commitments.getEmployee(2));
+        assertEquals(9, commitments.getTotalHoursPerDay());
+        commitments = this.employee3.getCommitments(store);
+        assertEquals(2, commitments.size());
+        assertEquals(this.project1, commitments.getProject(0));
+        assertEquals(this.project2, commitments.getProject(1));
+        assertEquals(6, commitments.getTotalHoursPerDay());
+        assertEquals(0, store.getCommitments(new Employee(12345)).size());
+        assertEquals(Map.of(this.employee1, 1, this.employee2, 1, this.employee3, 2), store.calculateInvolvementCounts());
+
+        // the snapshot is replaced after a change of the commitments
+        this.project3.addCommitment(this.employee2, 2);
+        assertNotSame(store, this.pps.getCommitmentStore());
+        assertSame(this.pps.getCommitmentStore(), this.pps.getCommitmentStore());
+        assertEquals(this.pps.calculateTotalManpowerBudget(), this.pps.getCommitmentStore().calculateTotalManpowerBudget());
+
+        for (String resourceName : List.of("HvA2015_e5_p5.xml", "HvA2018_e10_p25.xml", "HvA2019_e50_p100.xml")) {
+            PPS pps = PPS.importFromXML(resourceName);
+            store = pps.getCommitmentStore();
+            assertEquals(pps.calculateTotalManpowerBudget(), store.calculateTotalManpowerBudget(), resourceName);
+            store.calculateManpowerBudgets().forEach((project, budget) ->
+                    assertEquals(project.calculateManpowerBudget(), budget, project.toString()));
+            assertEquals(new MonthlySpendReport(pps.getProjects()).getMonthlySpends(),
+                    store.calculateMonthlySpendReport().getMonthlySpends(), resourceName);
+            for (Employee employee : pps.getEmployees()) {
+                long numProjects = pps.getProjects().stream()
+                        .filter(p -> p.getCommittedHoursPerDay().containsKey(employee)).count();
+                assertEquals(numProjects, employee.getCommitments(store).size(), employee.toString());
+            }
+        }
+    }
+}
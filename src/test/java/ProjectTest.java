@@ -2,6 +2,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import utils.HolidayCalendar;
+import utils.WorkingCalendar;
 
 import java.time.LocalDate;
 import java.util.Set;
@@ -52,4 +54,43 @@ class ProjectTest {
         assertEquals(0,
                 this.project3.calculateManpowerBudget(),"manpower budget project3");
     }
-}
\ No newline at end of file
+
+    @Test
+    void T12_checkBudgetUpdates() {
+        int budget = this.project1.calculateManpowerBudget();
+        assertEquals(budget, this.project1.calculateManpowerBudget(), "repeated budget");
+        this.project1.addCommitment(this.employee3, 2);
+        assertEquals(budget + 2*40*this.project1.getNumWorkingDays(),
+                this.project1.calculateManpowerBudget(), "budget after new commitment");
+        this.project1.addCommitment(this.employee1, 1);
+        assertEquals(budget + (2*40+1*20)*this.project1.getNumWorkingDays(),
+                this.project1.calculateManpowerBudget(), "budget after extra commitment");
+    }
+
+    @Test
+    void T13_checkDatelessProject() {
+        // placeholder projects, like those of unknown references in an import, have no dates
+        Project project = new Project("P9");
+        assertEquals(0, project.calculateManpowerBudget());
+        project.addCommitment(this.employee1, 2);
+        assertEquals(0, project.calculateManpowerBudget());
+        assertEquals(2*20, project.calculateDailyManpowerCost());
+    }
+
+    @Test
+    void T21_checkInjectedCalendar() {
+        WorkingCalendar calendar = new HolidayCalendar.Builder()
+                .addHoliday(LocalDate.of(2019,4,19))
+                .addHoliday(LocalDate.of(2019,4,22))
+                .addHoliday(LocalDate.of(2019,4,30))
+                .build();
+        Project project = new Project("P1001", "TestProject-1",
+                LocalDate.of(2019,2,1), LocalDate.of(2019,4,30), calendar);
+        assertEquals(LocalDate.of(2019,4,29), project.getEndDate());
+        assertEquals(this.project1.getNumWorkingDays() - 3, project.getNumWorkingDays());
+        assertEquals(project.getNumWorkingDays(), project.getWorkingDays().size());
+        assertEquals(project.getNumWorkingDays(), project.getMonthlyWorkingDays().getTotal());
+        project.addCommitment(this.employee1, 3);
+        assertEquals(3*20*project.getNumWorkingDays(), project.calculateManpowerBudget());
+    }
+}
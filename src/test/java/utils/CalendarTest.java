@@ -0,0 +1,177 @@
+package utils;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+class CalendarTest {
+    private static final int NUM_RANDOM_RANGES = 2_000_000;
+    private static final long FIRST_EPOCH_DAY = LocalDate.of(1900,1,1).toEpochDay();
+    private static final long LAST_EPOCH_DAY = LocalDate.of(2100,12,31).toEpochDay();
+
+    /**
+     * the original year-by-year implementation of getNumWorkingDays,
+     * kept as the reference for the closed-form calculation
+     */
+    private static int referenceNumWorkingDays(LocalDate firstDay, LocalDate lastDay) {
+        if (firstDay.isAfter(lastDay)) {
+            return 0;
+        }
+        int calendarDays =
+                lastDay.getDayOfYear() - firstDay.getDayOfYear() + 1;
+        for (int year = firstDay.getYear(); year < lastDay.getYear(); year++) {
+            calendarDays += LocalDate.ofYearDay(year,1).lengthOfYear();
+        }
+        int workingDays = 5 * (calendarDays/7);
+        int extraDays = calendarDays % 7;
+        int firstWeekDay = firstDay.getDayOfWeek().getValue();
+        for (int dayNr = 0; dayNr < extraDays; dayNr++) {
+            if (firstWeekDay+dayNr != DayOfWeek.SATURDAY.getValue() &&
+                    firstWeekDay+dayNr != DayOfWeek.SUNDAY.getValue() &&
+                    firstWeekDay+dayNr != DayOfWeek.SATURDAY.getValue()+7 &&
+                    firstWeekDay+dayNr != DayOfWeek.SUNDAY.getValue()+7) {
+                workingDays++;
+            }
+        }
+        return workingDays;
+    }
+
+    @Test
+    void T01_checkNumWorkingDaysBasics() {
+        // 2019-02-01 is a friday, 2019-04-30 a tuesday
+        assertEquals(63, Calendar.getNumWorkingDays(LocalDate.of(2019,2,1), LocalDate.of(2019,4,30)));
+        assertEquals(1, Calendar.getNumWorkingDays(LocalDate.of(2019,2,1), LocalDate.of(2019,2,1)));
+        assertEquals(0, Calendar.getNumWorkingDays(LocalDate.of(2019,2,2), LocalDate.of(2019,2,3)),
+                "weekend only");
+        assertEquals(0, Calendar.getNumWorkingDays(LocalDate.of(2019,2,5), LocalDate.of(2019,2,1)),
+                "first day after last day");
+        assertEquals(0, Calendar.getNumWorkingDays(LocalDate.of(2019,2,5), LocalDate.of(2010,2,1)),
+                "first day far after last day");
+        assertEquals(261, Calendar.getNumWorkingDays(LocalDate.of(2019,1,1), LocalDate.of(2019,12,31)));
+        assertEquals(262, Calendar.getNumWorkingDays(LocalDate.of(2020,1,1), LocalDate.of(2020,12,31)),
+                "leap year");
+    }
+
+    @Test
+    void T02_checkNumWorkingDaysAroundEpoch() {
+        LocalDate first = LocalDate.of(1969,12,1);
+        for (int i = 0; i < 60; i++) {
+            for (int j = i - 3; j < 60; j++) {
+                LocalDate from = first.plusDays(i);
+                LocalDate to = first.plusDays(j);
+                assertEquals(referenceNumWorkingDays(from, to), Calendar.getNumWorkingDays(from, to),
+                        from + " - " + to);
+            }
+        }
+    }
+
+    @Test
+    void T03_checkNumWorkingDaysRandomRanges() {
+        Random randomizer = new Random(19);
+        for (int i = 0; i < NUM_RANDOM_RANGES; i++) {
+            long firstDay = FIRST_EPOCH_DAY + randomizer.nextInt((int)(LAST_EPOCH_DAY - FIRST_EPOCH_DAY));
+            // mostly project-sized ranges, with some long and some reversed ones
+            long lastDay = firstDay - 10 + randomizer.nextInt(i % 10 == 0 ? 20000 : 800);
+            LocalDate from = LocalDate.ofEpochDay(firstDay);
+            LocalDate to = LocalDate.ofEpochDay(lastDay);
+            int expected = referenceNumWorkingDays(from, to);
+            assertEquals(expected, Calendar.getNumWorkingDays(from, to), from + " - " + to);
+            assertEquals(expected, Calendar.getNumWorkingDays(firstDay, lastDay), from + " - " + to);
+        }
+    }
+
+    @Test
+    void T04_checkNumWorkingDaysBatch() {
+        Random randomizer = new Random(4);
+        int size = 300_000;
+        long[] firstDays = new long[size];
+        long[] lastDays = new long[size];
+        for (int i = 0; i < size; i++) {
+            firstDays[i] = FIRST_EPOCH_DAY + randomizer.nextInt((int)(LAST_EPOCH_DAY - FIRST_EPOCH_DAY));
+            lastDays[i] = firstDays[i] - 10 + randomizer.nextInt(800);
+        }
+        int[] counts = new int[size];
+        int[] parallelCounts = new int[size];
+        Calendar.getNumWorkingDays(firstDays, lastDays, counts);
+        Calendar.getNumWorkingDaysParallel(firstDays, lastDays, parallelCounts);
+        for (int i = 0; i < size; i++) {
+            assertEquals(Calendar.getNumWorkingDays(firstDays[i], lastDays[i]), counts[i], "batch element " + i);
+        }
+        assertArrayEquals(counts, parallelCounts);
+    }
+
+    @Test
+    void T11_checkWorkingDayRange() {
+        LocalDate first = LocalDate.of(2019,2,1);
+        for (int length = -1; length < 30; length++) {
+            LocalDate last = first.plusDays(length);
+            Set<LocalDate> expected = first.datesUntil(last.plusDays(1))
+                    .filter(d -> d.getDayOfWeek().getValue() <= DayOfWeek.FRIDAY.getValue())
+                    .collect(Collectors.toSet());
+            Set<LocalDate> workingDays = Calendar.getWorkingDays(first, last);
+            assertEquals(expected.size(), workingDays.size(), "size until " + last);
+            assertEquals(expected, workingDays, "dates until " + last);
+            assertEquals(expected, new HashSet<>(workingDays), "iterated dates until " + last);
+        }
+        Set<LocalDate> workingDays = Calendar.getWorkingDays(first, LocalDate.of(2019,4,30));
+        assertTrue(workingDays.contains(LocalDate.of(2019,4,30)));
+        assertFalse(workingDays.contains(LocalDate.of(2019,2,2)), "saturday");
+        assertFalse(workingDays.contains(LocalDate.of(2019,5,1)), "after last day");
+        assertFalse(workingDays.contains("2019-02-04"));
+        assertThrows(UnsupportedOperationException.class, () -> workingDays.add(LocalDate.of(2019,5,1)));
+    }
+
+    @Test
+    void T21_checkMonthlyWorkingDays() {
+        Random randomizer = new Random(21);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate first = LocalDate.of(2010,1,1).plusDays(randomizer.nextInt(4000));
+            LocalDate last = first.plusDays(randomizer.nextInt(1000));
+            Map<YearMonth, Integer> expected = new TreeMap<>();
+            Calendar.getWorkingDays(first, last).forEach(d -> expected.merge(YearMonth.from(d), 1, Integer::sum));
+
+            MonthlyWorkingDays monthlyWorkingDays = Calendar.getMonthlyWorkingDays(first, last);
+            assertEquals(YearMonth.from(first), monthlyWorkingDays.getFirstMonth());
+            assertEquals(Calendar.getNumWorkingDays(first, last), monthlyWorkingDays.getTotal());
+            expected.forEach((month, count) ->
+                    assertEquals(count, monthlyWorkingDays.getCount(month), first + " - " + last + " in " + month));
+        }
+        MonthlyWorkingDays monthlyWorkingDays =
+                Calendar.getMonthlyWorkingDays(LocalDate.of(2019,12,30), LocalDate.of(2020,2,3));
+        assertEquals(3, monthlyWorkingDays.size());
+        assertEquals(2, monthlyWorkingDays.getCount(YearMonth.of(2019,12)));
+        assertEquals(23, monthlyWorkingDays.getCount(YearMonth.of(2020,1)));
+        assertEquals(1, monthlyWorkingDays.getCount(YearMonth.of(2020,2)));
+        assertEquals(0, monthlyWorkingDays.getCount(YearMonth.of(2020,3)));
+        assertEquals(0, Calendar.getMonthlyWorkingDays(LocalDate.of(2020,2,3), LocalDate.of(2020,2,1)).size());
+    }
+
+    @Test
+    void T22_checkLastWorkingDay() {
+        Random randomizer = new Random(22);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate first = LocalDate.of(2010,1,1).plusDays(randomizer.nextInt(4000));
+            int numWorkingDays = 1 + randomizer.nextInt(1000);
+            LocalDate last = WorkingCalendar.STANDARD.getLastWorkingDay(first, numWorkingDays);
+            assertTrue(Calendar.isWorkingDay(last), last.toString());
+            assertEquals(numWorkingDays, Calendar.getNumWorkingDays(first, last), first + " + " + numWorkingDays);
+        }
+        // 2019-06-01 is a saturday
+        assertEquals(LocalDate.of(2019,6,3), WorkingCalendar.STANDARD.getLastWorkingDay(LocalDate.of(2019,6,1), 1));
+        assertEquals(LocalDate.of(2019,6,14), WorkingCalendar.STANDARD.getLastWorkingDay(LocalDate.of(2019,6,1), 10));
+        assertEquals(LocalDate.of(2019,5,31), WorkingCalendar.STANDARD.getLastWorkingDay(LocalDate.of(2019,6,1), 0));
+    }
+}
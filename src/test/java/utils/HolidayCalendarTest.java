@@ -0,0 +1,90 @@
+package utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+class HolidayCalendarTest {
+    private Set<LocalDate> daysOff;
+    private HolidayCalendar calendar;
+
+    @BeforeEach
+    void setup() {
+        Random randomizer = new Random(4);
+        HolidayCalendar.Builder builder = new HolidayCalendar.Builder()
+                .workWeek(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY)
+                .workingHoursPerDay(9)
+                .addClosure(LocalDate.of(2019,12,23), LocalDate.of(2020,1,3));
+        this.daysOff = new HashSet<>(LocalDate.of(2019,12,23).datesUntil(LocalDate.of(2020,1,4)).collect(Collectors.toList()));
+        for (int i = 0; i < 2000; i++) {
+            LocalDate holiday = LocalDate.of(2010,1,1).plusDays(randomizer.nextInt(5000));
+            builder.addHoliday(holiday);
+            this.daysOff.add(holiday);
+        }
+        this.calendar = builder.build();
+    }
+
+    private boolean isWorkingDay(LocalDate date) {
+        return date.getDayOfWeek().getValue() <= DayOfWeek.THURSDAY.getValue() && !this.daysOff.contains(date);
+    }
+
+    @Test
+    void T01_checkWorkingDays() {
+        assertEquals(9, this.calendar.getWorkingHoursPerDay());
+        assertFalse(this.calendar.isWorkingDay(LocalDate.of(2019,12,30)), "closure");
+        assertFalse(this.calendar.isWorkingDay(LocalDate.of(2040,3,2)), "friday");
+        assertTrue(this.calendar.isWorkingDay(LocalDate.of(2040,3,1)), "thursday");
+        assertEquals(LocalDate.of(2020,1,6), this.calendar.firstWorkingDayFrom(LocalDate.of(2019,12,23)));
+
+        LocalDate first = LocalDate.of(2009,6,1);
+        for (LocalDate date = first; date.isBefore(LocalDate.of(2024,6,1)); date = date.plusDays(1)) {
+            assertEquals(isWorkingDay(date), this.calendar.isWorkingDay(date), date.toString());
+        }
+    }
+
+    @Test
+    void T02_checkRandomRanges() {
+        Random randomizer = new Random(2);
+        for (int i = 0; i < 3000; i++) {
+            LocalDate firstDay = LocalDate.of(2009,1,1).plusDays(randomizer.nextInt(6000));
+            LocalDate lastDay = firstDay.plusDays(randomizer.nextInt(400) - 5);
+            long expected = firstDay.isAfter(lastDay) ? 0 :
+                    firstDay.datesUntil(lastDay.plusDays(1)).filter(this::isWorkingDay).count();
+            assertEquals(expected, this.calendar.getNumWorkingDays(firstDay, lastDay), firstDay + " - " + lastDay);
+            assertEquals(expected, this.calendar.getWorkingDays(firstDay, lastDay).size());
+
+            LocalDate firstWorkingDay = firstDay;
+            while (!isWorkingDay(firstWorkingDay)) firstWorkingDay = firstWorkingDay.plusDays(1);
+            assertEquals(firstWorkingDay, this.calendar.firstWorkingDayFrom(firstDay), "from " + firstDay);
+
+            LocalDate lastWorkingDay = lastDay;
+            while (!isWorkingDay(lastWorkingDay)) lastWorkingDay = lastWorkingDay.minusDays(1);
+            assertEquals(lastWorkingDay, this.calendar.lastWorkingDayUntil(lastDay), "until " + lastDay);
+        }
+    }
+
+    @Test
+    void T03_checkStandardEquivalent() {
+        WorkingCalendar standard = new HolidayCalendar.Builder().build();
+        Random randomizer = new Random(3);
+        for (int i = 0; i < 100000; i++) {
+            long firstDay = -20000 + randomizer.nextInt(40000);
+            long lastDay = firstDay + randomizer.nextInt(1000) - 10;
+            assertEquals(Calendar.getNumWorkingDays(firstDay, lastDay), standard.getNumWorkingDays(firstDay, lastDay));
+        }
+        LocalDate saturday = LocalDate.of(2019,2,2);
+        assertEquals(Calendar.firstWorkingDayFrom(saturday), standard.firstWorkingDayFrom(saturday));
+        assertEquals(Calendar.lastWorkingDayUntil(saturday), standard.lastWorkingDayUntil(saturday));
+    }
+}
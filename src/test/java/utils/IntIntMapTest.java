@@ -0,0 +1,60 @@
+package utils;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+class IntIntMapTest {
+
+    @Test
+    void T01_checkBasics() {
+        IntIntMap map = new IntIntMap();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(0));
+        assertEquals(0, map.get(100001));
+        assertEquals(-1, map.getOrDefault(100001, -1));
+        map.put(100001, 5);
+        assertEquals(8, map.merge(100001, 3));
+        assertEquals(2, map.merge(0, 2));
+        assertTrue(map.containsKey(0));
+        assertEquals(2, map.size());
+        assertEquals("{0=2, 100001=8}", map.toString());
+    }
+
+    @Test
+    void T02_checkRandomMerges() {
+        Random randomizer = new Random(2);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = randomizer.nextInt(20000) - 1000;
+            int value = randomizer.nextInt(100);
+            assertEquals((int)expected.merge(key, value, Integer::sum), map.merge(key, value));
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals((int)value, map.get(key)));
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+
+    @Test
+    void T03_checkStridedKeys() {
+        // keys that only differ in their high bits must not pile up in the same slots
+        IntIntMap map = new IntIntMap();
+        for (int i = 0; i < 40000; i++) {
+            map.put(i << 16, i);
+        }
+        assertEquals(40000, map.size());
+        for (int i = 0; i < 40000; i++) {
+            assertEquals(i, map.get(i << 16));
+        }
+        assertFalse(map.containsKey(1));
+        assertTrue(map.getMaxProbeLength() < 100, "longest probe " + map.getMaxProbeLength());
+    }
+}
@@ -0,0 +1,56 @@
+package utils;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+class RangeAddMaxTreeTest {
+
+    @Test
+    void T01_checkBasics() {
+        RangeAddMaxTree tree = new RangeAddMaxTree(5);
+        assertEquals(5, tree.size());
+        assertEquals(0, tree.getMax());
+        tree.add(1, 3, 4);
+        tree.add(3, 4, 2);
+        assertEquals(6, tree.getMax());
+        assertEquals(4, tree.getMax(0, 2));
+        assertEquals(0, tree.get(0));
+        assertEquals(2, tree.get(4));
+        tree.add(0, 4, -6);
+        assertEquals(-2, tree.getMax(1, 2));
+        assertEquals(0, tree.getMax());
+
+        RangeAddMaxTree copy = new RangeAddMaxTree(tree);
+        copy.add(0, 0, 10);
+        assertEquals(4, copy.getMax());
+        assertEquals(0, tree.getMax());
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.add(2, 5, 1));
+    }
+
+    @Test
+    void T02_checkRandomAgainstArray() {
+        Random randomizer = new Random(2);
+        int size = 77;
+        long[] expected = new long[size];
+        RangeAddMaxTree tree = new RangeAddMaxTree(size);
+        for (int i = 0; i < 5000; i++) {
+            int from = randomizer.nextInt(size);
+            int to = from + randomizer.nextInt(size - from);
+            if (randomizer.nextBoolean()) {
+                long value = randomizer.nextInt(201) - 100;
+                tree.add(from, to, value);
+                for (int p = from; p <= to; p++) expected[p] += value;
+            } else {
+                assertEquals(Arrays.stream(expected, from, to + 1).max().getAsLong(), tree.getMax(from, to));
+            }
+            assertEquals(Arrays.stream(expected).max().getAsLong(), tree.getMax());
+        }
+    }
+}